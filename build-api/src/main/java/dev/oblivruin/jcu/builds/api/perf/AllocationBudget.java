@@ -0,0 +1,33 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.builds.api.perf;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares the maximum bytes a hot-path method or constructor may allocate per call,
+ * {@code 0} for a method that must not allocate at all.
+ * <p>
+ * The budget applies to the steady state, e.g. with enough free capacity or a constant which already exists,
+ * and is checked against the measured allocation by the harness in test-tool.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.METHOD, ElementType.CONSTRUCTOR})
+public @interface AllocationBudget {
+    /** @return bytes allowed per call */
+    int value();
+}
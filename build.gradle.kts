@@ -187,7 +187,7 @@ val core = project(":jcu-core") {
     description = "Core API for classfile"
     group = "dev.oblivruin.jcu.core"
 
-    set(arrayOf("dev/oblivruin/jcu", "dev/oblivruin/jcu/constant", "dev/oblivruin/jcu/internal", "dev/oblivruin/jcu/misc"), vers = intArrayOf(9, 12))
+    set(arrayOf("dev/oblivruin/jcu", "dev/oblivruin/jcu/constant", "dev/oblivruin/jcu/internal", "dev/oblivruin/jcu/misc"), vers = intArrayOf(9, 11, 12, 15))
 
     BuildTool.register(this)
 }
@@ -196,7 +196,11 @@ val util = project(":jcu-util") {
     description = "Provide extra help for check, (de)serialize"
     group = "dev.oblivruin.jcu.util"
 
-    set(arrayOf("dev/oblivruin/jcu/attribute", "dev/oblivruin/jcu/constant/helper", "dev/oblivruin/jcu/util"), core)
+    set(arrayOf("dev/oblivruin/jcu/attribute", "dev/oblivruin/jcu/constant/helper", "dev/oblivruin/jcu/util", "dev/oblivruin/jcu/util/jar"), core)
+
+    tasks.named<ModuleInfoTask>("genModuleInfo") {
+        requires.add("java.management")
+    }
 }
 
 val common = project(":jcu-common") {
@@ -214,6 +218,17 @@ project(":jcu-asm") {
     set(arrayOf("dev/oblivruin/jcu/asm"), core, util)
 }
 
+project(":jcu-agent") {
+    description = "ClassFileTransformer adapter for load-time instrumentation"
+    group = "dev.oblivruin.jcu.agent"
+
+    set(arrayOf("dev/oblivruin/jcu/agent"), core)
+
+    tasks.named<ModuleInfoTask>("genModuleInfo") {
+        requires.add("java.instrument")
+    }
+}
+
 project(":test-tool") {
     configure<JavaPluginExtension> {
         sourceCompatibility = JavaVersion.VERSION_1_8
@@ -229,6 +244,53 @@ project(":test-tool") {
     }
 }
 
+project(":jcu-bench") {
+    description = "JMH benchmarks of hot paths, with ASM as the baseline"
+
+    configure<JavaPluginExtension> {
+        sourceCompatibility = JavaVersion.VERSION_1_8
+        targetCompatibility = JavaVersion.VERSION_1_8
+    }
+
+    dependencies {
+        val implementation by configurations
+        val annotationProcessor by configurations
+        implementation(core)
+        implementation(util)
+        implementation(project(":jcu-agent"))
+        implementation(project(":test-tool"))
+        implementation("org.openjdk.jmh:jmh-core:1.37")
+        implementation("org.ow2.asm:asm:9.8")
+        annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    }
+
+    // e.g. ./gradlew :jcu-bench:jmh -Pjmh="Reader -prof gc"
+    tasks.register<JavaExec>("jmh") {
+        group = "benchmark"
+        mainClass = "org.openjdk.jmh.Main"
+        classpath = the<SourceSetContainer>()["main"].runtimeClasspath
+        args = (findProperty("jmh")?.toString() ?: "").split(' ').filter { it.isNotEmpty() }
+    }
+
+    // e.g. ./gradlew :jcu-bench:throughput -Pcorpus=path/to/libs
+    tasks.register<JavaExec>("throughput") {
+        group = "benchmark"
+        mainClass = "dev.oblivruin.jcu.bench.Throughput"
+        classpath = the<SourceSetContainer>()["main"].runtimeClasspath
+        args = listOf(findProperty("corpus")?.toString() ?: "jrt")
+        jvmArgs("-Xmx2g")
+    }
+
+    // e.g. ./gradlew :jcu-bench:agentThroughput -Pcorpus=path/to/app.jar
+    tasks.register<JavaExec>("agentThroughput") {
+        group = "benchmark"
+        mainClass = "dev.oblivruin.jcu.bench.AgentThroughput"
+        classpath = the<SourceSetContainer>()["main"].runtimeClasspath
+        args = listOf(findProperty("corpus")?.toString() ?: "jrt")
+        jvmArgs("-Xmx2g")
+    }
+}
+
 project(":build-tool") {
     description = "A implementation for recompile"
 
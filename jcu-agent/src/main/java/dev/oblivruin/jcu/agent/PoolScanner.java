@@ -0,0 +1,114 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.agent;
+
+import dev.oblivruin.jcu.internal.BytesUtil;
+
+import static dev.oblivruin.jcu.constant.Tag.*;
+
+/**
+ * Allocation-free scanning over the constant pool of raw class file bytes,
+ * used to reject classes before a {@link dev.oblivruin.jcu.ClassFileReader} is created.
+ *
+ * @author OblivRuinDev
+ */
+public final class PoolScanner {
+    private PoolScanner() {}
+
+    /**
+     * Check whether the constant pool contains a {@code CONSTANT_Utf8_info} with given bytes.
+     *
+     * @param bytes trusted class file bytes
+     * @param utf8 modified UTF-8 bytes of the value, e.g. an annotation descriptor
+     * @return whether there is such an entry
+     */
+    public static boolean containsUtf8(byte[] bytes, byte[] utf8) {
+        int len = utf8.length;
+        for (int index = 1, count = BytesUtil.getUShort(bytes, 8), off = 10; index < count; ++index) {
+            if (bytes[off] == Utf8 && BytesUtil.getUShort(bytes, off + 1) == len && match(bytes, off + 3, utf8)) {
+                return true;
+            }
+            if (bytes[off] == Long || bytes[off] == Double) {
+                ++index;
+            }
+            off = next(bytes, off);
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the constant pool contains any of given {@code CONSTANT_Utf8_info} values.
+     * <br>
+     * The constant pool is scanned only once.
+     *
+     * @param bytes trusted class file bytes
+     * @param utf8s modified UTF-8 bytes of the values
+     * @return whether there is any such entry
+     */
+    public static boolean containsAny(byte[] bytes, byte[][] utf8s) {
+        for (int index = 1, count = BytesUtil.getUShort(bytes, 8), off = 10; index < count; ++index) {
+            if (bytes[off] == Utf8) {
+                int len = BytesUtil.getUShort(bytes, off + 1);
+                for (byte[] utf8 : utf8s) {
+                    if (utf8.length == len && match(bytes, off + 3, utf8)) {
+                        return true;
+                    }
+                }
+            } else if (bytes[off] == Long || bytes[off] == Double) {
+                ++index;
+            }
+            off = next(bytes, off);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the position of the constant next to the one at {@code off}.
+     *
+     * @param bytes trusted class file bytes
+     * @param off point to the tag of a constant
+     * @return point to the tag of next constant, or {@code header} if it's the last one
+     */
+    public static int next(byte[] bytes, int off) {
+        switch (bytes[off]) {
+            case Utf8:
+                return off + 3 + BytesUtil.getUShort(bytes, off + 1);
+            case Long:
+            case Double:
+                return off + 9;
+            case MethodHandle:
+                return off + 4;
+            case Class:
+            case String:
+            case MethodType:
+            case Module:
+            case Package:
+                return off + 3;
+            default:
+                return off + 5;
+        }
+    }
+
+    private static boolean match(byte[] bytes, int off, byte[] value) {
+        for (int index = 0, len = value.length; index < len; ++index) {
+            if (bytes[off + index] != value[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.agent;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+
+/**
+ * A {@link ClassFileTransformer} adapter built on {@link ClassFileReader} and {@link ClassFileWriter}.
+ * <p>
+ * A class is rejected in 2 steps, both of them don't allocate and return {@code null} directly:
+ * <ol>
+ *     <li>{@link #accept(ClassLoader, String)} by the internal name of the class</li>
+ *     <li>{@link #accept(byte[])} by the raw class file bytes, usually by scanning
+ *     the constant pool with {@link PoolScanner}</li>
+ * </ol>
+ * Only accepted classes are parsed and passed to {@link #transform(ClassLoader, ClassFileReader)}.
+ * <p>
+ * Exceptions thrown by the transformation are swallowed by the JVM,
+ * so the adapter reports them through {@link #onError(String, Throwable)}.
+ *
+ * @author OblivRuinDev
+ */
+public abstract class RawTransformer implements ClassFileTransformer {
+    @Override
+    public final byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                                  ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className == null || !accept(loader, className) || !accept(classfileBuffer)) {
+            return null;
+        }
+        try {
+            return transform(loader, new ClassFileReader(classfileBuffer));
+        } catch (VirtualMachineError vmError) {
+            throw vmError;
+        } catch (Throwable ex) {
+            onError(className, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Filter classes by name, the first step and the cheapest one.
+     *
+     * @param loader the defining loader, or {@code null} for the bootstrap loader
+     * @param className the internal name of the class (e.g. {@code java/lang/Object})
+     * @return whether the class may be transformed
+     */
+    protected abstract boolean accept(ClassLoader loader, String className);
+
+    /**
+     * Filter classes by raw class file bytes, must not change elements of the array.
+     *
+     * @param bytes the class file bytes
+     * @return whether the class may be transformed, {@code true} by default
+     * @see PoolScanner
+     */
+    protected boolean accept(byte[] bytes) {
+        return true;
+    }
+
+    /**
+     * Transform an accepted class.
+     *
+     * @param loader the defining loader, or {@code null} for the bootstrap loader
+     * @param reader the reader of the class file
+     * @return the new class file bytes, or {@code null} if the class is unchanged
+     * @see #newWriter(ClassFileReader)
+     */
+    protected abstract byte[] transform(ClassLoader loader, ClassFileReader reader);
+
+    /**
+     * Called when the transformation failed, prints the stack trace by default.
+     *
+     * @param className the internal name of the class
+     * @param ex the exception
+     */
+    protected void onError(String className, Throwable ex) {
+        System.err.println("Failed to transform " + className);
+        ex.printStackTrace(System.err);
+    }
+
+    /**
+     * Create a writer which shares the constant indexes of given reader,
+     * so that fields, methods and attributes can be passed through as raw bytes by
+     * {@link ClassFileReader#accept(dev.oblivruin.jcu.IRawClassVisitor)}.
+     *
+     * @param reader the reader of original class file
+     * @return the writer, or {@code null} if the constant pool contains duplicated
+     * entries and the indexes can't be kept.
+     */
+    protected static ClassFileWriter newWriter(ClassFileReader reader) {
+        ClassFileWriter writer = new ClassFileWriter();
+        reader.copyCPTo(writer);
+        return writer.count() == reader.count() ? writer : null;
+    }
+}
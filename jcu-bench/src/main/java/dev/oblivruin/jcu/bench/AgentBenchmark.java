@@ -0,0 +1,74 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.agent.PoolScanner;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejection of classes which are not transformed, the common case of a load-time agent.
+ * <br>
+ * The class is rejected because it does not contain a marker annotation,
+ * {@link PoolScanner} only walks the constant pool while ASM has to parse the class.
+ *
+ * @author OblivRuinDev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-XX:+UseParallelGC")
+public class AgentBenchmark {
+    private static final String MARKER = "Ldev/oblivruin/jcu/bench/Marker;";
+
+    @Param({Corpus.OBJECT, Corpus.JSH_MODULE, Corpus.GENERATED})
+    public String input;
+
+    private byte[] bytes;
+    private final byte[] marker = MARKER.getBytes(StandardCharsets.UTF_8);
+
+    @Setup
+    public void setup() {
+        bytes = Corpus.of(input);
+    }
+
+    @Benchmark
+    public boolean scan() {
+        return PoolScanner.containsUtf8(bytes, marker);
+    }
+
+    @Benchmark
+    public boolean asmScan() {
+        boolean[] found = new boolean[1];
+        new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                found[0]|=MARKER.equals(descriptor);
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return found[0];
+    }
+}
@@ -0,0 +1,205 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.IRawAttributeVisitor;
+import dev.oblivruin.jcu.IRawClassVisitor;
+import dev.oblivruin.jcu.IRawCompAttributeVisitor;
+import dev.oblivruin.jcu.IRawFieldVisitor;
+import dev.oblivruin.jcu.IRawMethodVisitor;
+import dev.oblivruin.jcu.agent.PoolScanner;
+import dev.oblivruin.jcu.agent.RawTransformer;
+import dev.oblivruin.jcu.constant.AccessFlag;
+import dev.oblivruin.jcu.test.ClassCorpus;
+import dev.oblivruin.jcu.test.TestException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Time of a load-time agent built on {@link RawTransformer} over a large corpus, single-threaded.
+ * <br>
+ * Nested classes are rejected by name, classes not referencing {@code java/lang/StringBuilder} are rejected by
+ * {@link PoolScanner}, and the others are rewritten with a synthetic marker field: the constant pool
+ * is shared through {@link RawTransformer#newWriter(ClassFileReader)} and members are passed through
+ * by {@link ClassFileReader#accept(IRawClassVisitor)}.
+ * <p>
+ * Usage: {@code AgentThroughput [jrt|<jar or directory>] [rounds]}, the runtime image is used by default.
+ *
+ * @author OblivRuinDev
+ */
+public final class AgentThroughput {
+    private AgentThroughput() {}
+
+    public static void main(String[] args) {
+        String source = args.length > 0 ? args[0] : "jrt";
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        ClassCorpus corpus = ClassCorpus.load(source);
+        byte[][] classes = corpus.classes;
+        String[] names = new String[classes.length];
+        for (int index = 0; index < classes.length; ++index) {
+            ClassFileReader reader = new ClassFileReader(classes[index]);
+            names[index] = reader.utf8V(reader.ref1Index(reader.readU2(reader.header + 2)));
+        }
+        System.out.printf("%s: %d classes, %.1f MB%n", source, classes.length, corpus.bytes / 1e6);
+
+        Marker transformer = new Marker();
+        for (int index = 0; index < classes.length; ++index) {
+            byte[] output = transformer.transform(null, names[index], null, null, classes[index]);
+            if (output != null) {
+                check(classes[index], output);
+            }
+        }
+        System.out.printf("rejected by name: %d, rejected by bytes: %d, rewritten: %d, unchanged: %d, failed: %d%n",
+                transformer.byName, transformer.byBytes, transformer.rewritten, transformer.unchanged, transformer.failed);
+
+        long best = Long.MAX_VALUE, total = 0;
+        long sink = 0;
+        for (int round = -2; round < rounds; ++round) {// 2 rounds of warm-up
+            long start = System.nanoTime();
+            for (int index = 0; index < classes.length; ++index) {
+                byte[] output = transformer.transform(null, names[index], null, null, classes[index]);
+                if (output != null) {
+                    sink+=output.length;
+                }
+            }
+            long time = System.nanoTime() - start;
+            if (round >= 0) {
+                best = Math.min(best, time);
+                total+=time;
+            }
+        }
+        System.out.printf("total %d ms in %d rounds, best %.1f ms, %.0f classes/s (%d)%n",
+                total / 1000000, rounds, best / 1e6, classes.length / (best / 1e9), sink & 1);
+    }
+
+    /**
+     * The rewritten class must have the same constant indexes and exactly one more field.
+     */
+    private static void check(byte[] input, byte[] output) {
+        ClassFileReader in = new ClassFileReader(input), out = new ClassFileReader(output);
+        if (out.readU2(out.fieldPos()) != in.readU2(in.fieldPos()) + 1 ||
+                out.readU2(out.methodPos()) != in.readU2(in.methodPos()) ||
+                out.readU2(out.header + 2) != in.readU2(in.header + 2)) {
+            throw new TestException("Broken output of " + in.utf8V(in.ref1Index(in.readU2(in.header + 2))));
+        }
+    }
+
+    static final class Marker extends RawTransformer {
+        private static final String NAME = "jcu$marker";
+        private final byte[] list = "java/lang/StringBuilder".getBytes(StandardCharsets.UTF_8);
+        int byName, byBytes, rewritten, unchanged, failed;
+
+        @Override
+        protected boolean accept(ClassLoader loader, String className) {
+            if (className.indexOf('$') >= 0) {
+                ++byName;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        protected boolean accept(byte[] bytes) {
+            if (!PoolScanner.containsUtf8(bytes, list)) {
+                ++byBytes;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        protected byte[] transform(ClassLoader loader, ClassFileReader reader) {
+            ClassFileWriter writer = newWriter(reader);
+            if (writer == null) {
+                ++unchanged;
+                return null;
+            }
+            reader.accept(new Marking(writer, writer.findUtf8(NAME), writer.findUtf8("Z")));
+            ++rewritten;
+            return writer.toByteArray();
+        }
+
+        @Override
+        protected void onError(String className, Throwable ex) {
+            ++failed;
+            super.onError(className, ex);
+        }
+    }
+
+    /**
+     * Passes everything to the writer, and adds the marker field before the end.
+     */
+    static final class Marking implements IRawClassVisitor {
+        private final ClassFileWriter writer;
+        private final int name, desc;
+
+        Marking(ClassFileWriter writer, int name, int desc) {
+            this.writer = writer;
+            this.name = name;
+            this.desc = desc;
+        }
+
+        @Override
+        public void visit(int version, int access, int thisCIndex, int superCIndex, int[] interfaceCIndexes) {
+            writer.visit(version, access, thisCIndex, superCIndex, interfaceCIndexes);
+        }
+
+        @Override
+        public IRawFieldVisitor visitField(int access, int nameIndex, int descIndex) {
+            return writer.visitField(access, nameIndex, descIndex);
+        }
+
+        @Override
+        public IRawMethodVisitor visitMethod(int access, int nameIndex, int descIndex) {
+            return writer.visitMethod(access, nameIndex, descIndex);
+        }
+
+        @Override
+        public void visitAttribute(int nameIndex, int off, int len, byte[] data) {
+            writer.visitAttribute(nameIndex, off, len, data);
+        }
+
+        @Override
+        public void visitAttribute(int nameIndex, int value) {
+            writer.visitAttribute(nameIndex, value);
+        }
+
+        @Override
+        public void visitEmptyAttribute(int nameIndex) {
+            writer.visitEmptyAttribute(nameIndex);
+        }
+
+        @Override
+        public IRawAttributeVisitor visitAttribute(int nameIndex) {
+            return writer.visitAttribute(nameIndex);
+        }
+
+        @Override
+        public IRawCompAttributeVisitor visitCompAttribute(int nameIndex) {
+            return writer.visitCompAttribute(nameIndex);
+        }
+
+        @Override
+        public void visitEnd() {
+            writer.visitField(AccessFlag.ACC_PRIVATE | AccessFlag.ACC_STATIC | AccessFlag.ACC_SYNTHETIC, name, desc)
+                    .visitEnd();
+            writer.visitEnd();
+        }
+    }
+}
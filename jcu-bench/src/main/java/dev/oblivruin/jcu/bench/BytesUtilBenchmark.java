@@ -0,0 +1,157 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.misc.Internal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backends of {@link BytesUtil} on get, set and match of u2, u4 and u8, at unaligned positions.
+ * <br>
+ * A backend is forced with {@link Internal#BYTES_BACKEND} before {@link Internal#loadFastC()},
+ * and the setup fails if {@link Internal#bytesBackend()} reports another one.
+ * Requires JDK 9+ and jcu-core as a jar, which is the default classpath of the {@code jmh} task.
+ *
+ * @author OblivRuinDev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {
+        "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+        "--add-opens=java.base/java.lang=ALL-UNNAMED"
+})
+@OperationsPerInvocation(BytesUtilBenchmark.COUNT)
+public class BytesUtilBenchmark {
+    static final int COUNT = 1024;
+
+    @Param({"portable", "varhandle", "unsafe"})
+    public String backend;
+
+    private final byte[] bytes = new byte[COUNT*8 + 16];
+
+    @Setup
+    public void setup() {
+        System.setProperty(Internal.BYTES_BACKEND, backend);
+        Internal.loadFastC();
+        String active = Internal.bytesBackend();
+        if (!active.equals(backend)) {
+            throw new IllegalStateException("Active backend is " + active);
+        }
+        for (int index = 0; index < bytes.length; ++index) {
+            bytes[index] = (byte) (index*31 + 7);
+        }
+    }
+
+    @Benchmark
+    public int getU2() {
+        byte[] bytes = this.bytes;
+        int sum = 0;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=3) {
+            sum+=BytesUtil.getUShort(bytes, off);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public byte[] setU2() {
+        byte[] bytes = this.bytes;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=3) {
+            BytesUtil.setUShort(bytes, off, index);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public int matchU2() {
+        byte[] bytes = this.bytes;
+        int count = 0;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=3) {
+            if (BytesUtil.matchUShort(bytes, off, index)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int getU4() {
+        byte[] bytes = this.bytes;
+        int sum = 0;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=5) {
+            sum+=BytesUtil.getInt(bytes, off);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public byte[] setU4() {
+        byte[] bytes = this.bytes;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=5) {
+            BytesUtil.setInt(bytes, off, index);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public int matchU4() {
+        byte[] bytes = this.bytes;
+        int count = 0;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=5) {
+            if (BytesUtil.matchInt(bytes, off, index)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long getU8() {
+        byte[] bytes = this.bytes;
+        long sum = 0;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=8) {
+            sum+=BytesUtil.getLong(bytes, off);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public byte[] setU8() {
+        byte[] bytes = this.bytes;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=8) {
+            BytesUtil.setLong(bytes, off, index);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public int matchU8() {
+        byte[] bytes = this.bytes;
+        int count = 0;
+        for (int index = 0, off = 1; index < COUNT; ++index, off+=8) {
+            if (BytesUtil.matchLong(bytes, off, index)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
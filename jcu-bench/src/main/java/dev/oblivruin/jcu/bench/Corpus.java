@@ -0,0 +1,91 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.test.BytesHelper;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Inputs of benchmarks, selected by name with {@code @Param}.
+ *
+ * @author OblivRuinDev
+ */
+public final class Corpus {
+    private Corpus() {}
+
+    /** Names accepted by {@link #of(String)}. */
+    public static final String OBJECT = "object", JSH_MODULE = "jshModule", GENERATED = "generated";
+
+    /**
+     * @param name {@link #OBJECT}, {@link #JSH_MODULE} or {@link #GENERATED}
+     * @return class file bytes
+     */
+    public static byte[] of(String name) {
+        switch (name) {
+            case OBJECT:
+                return BytesHelper.j8ObjBytes;
+            case JSH_MODULE:
+                return BytesHelper.jshModuleBytes;
+            case GENERATED:
+                return generate(0, 64, 256);
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+
+    /**
+     * Generate a class with many fields and methods, the content only depends on the arguments.
+     *
+     * @param seed distinguishes generated classes
+     * @param fields count of fields
+     * @param methods count of methods
+     * @return class file bytes
+     */
+    public static byte[] generate(int seed, int fields, int methods) {
+        String name = "dev/oblivruin/jcu/bench/gen/Generated" + seed;
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", new String[]{"java/io/Serializable"});
+        writer.visitSource("Generated" + seed + ".java", null);
+        for (int index = 0; index < fields; ++index) {
+            writer.visitField(ACC_PRIVATE, "field" + index, (index & 1) == 0 ? "I" : "Ljava/lang/String;",
+                    null, null).visitEnd();
+        }
+        for (int index = 0; index < methods; ++index) {
+            MethodVisitor mv = writer.visitMethod(ACC_PUBLIC, "method" + index, "(I)Ljava/lang/String;", null, null);
+            mv.visitCode();
+            Label start = new Label();
+            mv.visitLabel(start);
+            mv.visitLineNumber(index + 1, start);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "field" + (index % Math.max(1, fields) | 1), "Ljava/lang/String;");
+            mv.visitLdcInsn("constant " + seed + ' ' + index);
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;", false);
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/String", "valueOf", "(I)Ljava/lang/String;", false);
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;", false);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.test.NoopVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link ClassFileReader}, with ASM as the baseline.
+ *
+ * @author OblivRuinDev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-XX:+UseParallelGC")
+public class ReaderBenchmark {
+    @Param({Corpus.OBJECT, Corpus.JSH_MODULE, Corpus.GENERATED})
+    public String input;
+
+    private byte[] bytes;
+    private ClassFileReader reader;
+    private ClassReader asmReader;
+    private final NoopVisitor visitor = new NoopVisitor();
+    private final ClassVisitor asmVisitor = new ClassVisitor(Opcodes.ASM9) {};
+
+    @Setup
+    public void setup() {
+        bytes = Corpus.of(input);
+        reader = new ClassFileReader(bytes);
+        asmReader = new ClassReader(bytes);
+    }
+
+    @Benchmark
+    public ClassFileReader construct() {
+        return new ClassFileReader(bytes);
+    }
+
+    @Benchmark
+    public int accept() {
+        reader.accept(visitor);
+        return visitor.sink;
+    }
+
+    @Benchmark
+    public ClassFileWriter copyCP() {
+        ClassFileWriter writer = new ClassFileWriter();
+        reader.copyCPTo(writer);
+        return writer;
+    }
+
+    @Benchmark
+    public ClassReader asmConstruct() {
+        return new ClassReader(bytes);
+    }
+
+    @Benchmark
+    public ClassVisitor asmAccept() {
+        asmReader.accept(asmVisitor, 0);
+        return asmVisitor;
+    }
+
+    /** ASM copies the constant pool when a {@link ClassWriter} is created from a {@link ClassReader}. */
+    @Benchmark
+    public ClassWriter asmCopyCP() {
+        return new ClassWriter(asmReader, 0);
+    }
+}
@@ -0,0 +1,108 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.internal.Strings;
+import dev.oblivruin.jcu.misc.ByteArray;
+import dev.oblivruin.jcu.misc.Internal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modified UTF-8 encoding of {@link Strings#write(String, ByteArray)} over string shapes and lengths,
+ * with the portable implementation and with {@code Strings$$$$9} loaded by {@link Internal#loadFastC()}.
+ * <br>
+ * The implementation is chosen when {@link Strings} is defined, so every parameter set runs in its own fork,
+ * and the setup fails if fast class is requested but not loaded, rather than silently measuring the fallback.
+ * Requires JDK 9+ for the forked JVM.
+ *
+ * @author OblivRuinDev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {
+        "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+        "--add-opens=java.base/java.lang=ALL-UNNAMED"
+})
+public class StringsBenchmark {
+    /** Whether to call {@link Internal#loadFastC()} before {@link Strings} is used. */
+    @Param({"false", "true"})
+    public boolean fastC;
+
+    /** {@code ascii}, {@code latin1} (with NUL), {@code cjk} (BMP) or {@code mixed}. */
+    @Param({"ascii", "latin1", "cjk", "mixed"})
+    public String shape;
+
+    @Param({"8", "64", "1024"})
+    public int length;
+
+    private String value;
+    private final ByteArray array = new ByteArray(4096);
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        if (fastC) {
+            Internal.loadFastC();
+            // the portable implementation has no field, the fast one keeps its method handles in fields
+            if (Class.forName("dev.oblivruin.jcu.internal.Strings").getDeclaredFields().length == 0) {
+                throw new IllegalStateException("Fast class is not loaded");
+            }
+        }
+        value = string(shape, length, new Random(length));
+    }
+
+    static String string(String shape, int length, Random random) {
+        char[] chars = new char[length];
+        for (int index = 0; index < length; ++index) {
+            char c;
+            switch (shape) {
+                case "ascii":
+                    c = (char) (0x20 + random.nextInt(0x5F));
+                    break;
+                case "latin1":
+                    c = index % 16 == 0 ? 0 : (char) (0x20 + random.nextInt(0xE0));
+                    break;
+                case "cjk":
+                    c = (char) (0x4E00 + random.nextInt(0x5200));
+                    break;
+                case "mixed": {
+                    int kind = random.nextInt(8);
+                    c = kind < 5 ? (char) (0x20 + random.nextInt(0x5F)) :
+                            kind == 5 ? (char) (0xA0 + random.nextInt(0x60)) :
+                            kind == 6 ? (char) (0x4E00 + random.nextInt(0x5200)) : 0;
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException(shape);
+            }
+            chars[index] = c;
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    public int write() {
+        ByteArray array = this.array;
+        array.length = 0;
+        return Strings.write(value, array);
+    }
+}
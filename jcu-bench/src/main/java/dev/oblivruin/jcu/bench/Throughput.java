@@ -0,0 +1,81 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.test.ClassCorpus;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of full round-trips (read, copy the constant pool, accept into a writer, write) over a large corpus,
+ * single-threaded and parallel, reported as MB/s and classes/s.
+ * <p>
+ * Usage: {@code Throughput [jrt|<jar or directory>] [rounds]}, the runtime image is used by default.
+ *
+ * @author OblivRuinDev
+ */
+public final class Throughput {
+    private Throughput() {}
+
+    public static void main(String[] args) {
+        String source = args.length > 0 ? args[0] : "jrt";
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        ClassCorpus corpus = ClassCorpus.load(source);
+        byte[][] classes = corpus.classes;
+        System.out.printf("%s: %d classes, %.1f MB%n", source, classes.length, corpus.bytes / 1e6);
+
+        int identical = 0;
+        for (byte[] bytes : classes) {
+            if (Arrays.equals(bytes, roundTrip(bytes))) {
+                ++identical;
+            }
+        }
+        System.out.printf("byte-identical round-trips: %d%n", identical);
+
+        run("single", corpus, rounds, false);
+        run("parallel", corpus, rounds, true);
+    }
+
+    private static void run(String name, ClassCorpus corpus, int rounds, boolean parallel) {
+        byte[][] classes = corpus.classes;
+        long best = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = -2; round < rounds; ++round) {// 2 rounds of warm-up
+            long start = System.nanoTime();
+            IntStream indexes = IntStream.range(0, classes.length);
+            sink+=(parallel ? indexes.parallel() : indexes).mapToLong(index -> roundTrip(classes[index]).length).sum();
+            long time = System.nanoTime() - start;
+            if (round >= 0) {
+                best = Math.min(best, time);
+            }
+        }
+        double seconds = best / 1e9;
+        System.out.printf("%-8s %10.1f MB/s %12.0f classes/s (%d)%n",
+                name, corpus.bytes / 1e6 / seconds, classes.length / seconds, sink & 1);
+    }
+
+    private static byte[] roundTrip(byte[] bytes) {
+        ClassFileReader reader = new ClassFileReader(bytes);
+        ClassFileWriter writer = new ClassFileWriter();
+        reader.copyCPTo(writer);
+        reader.accept(writer);
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,114 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.bench;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.constant.Tag;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link ClassFileWriter}, with ASM as the baseline.
+ * <br>
+ * Pool building replays {@code CONSTANT_Utf8_info} and {@code CONSTANT_Class_info} entries of the input,
+ * so both sides intern the same values in the same order.
+ *
+ * @author OblivRuinDev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-XX:+UseParallelGC")
+public class WriterBenchmark {
+    @Param({Corpus.OBJECT, Corpus.JSH_MODULE, Corpus.GENERATED})
+    public String input;
+
+    private String[] utf8s;
+    private String[] classes;
+    private ClassFileWriter writer;
+    private ClassWriter asmWriter;
+
+    @Setup
+    public void setup() {
+        byte[] bytes = Corpus.of(input);
+        ClassFileReader reader = new ClassFileReader(bytes);
+        ArrayList<String> utf8s = new ArrayList<>(), classes = new ArrayList<>();
+        for (int index = 1, count = reader.count(); index < count; ++index) {
+            switch (reader.tag(index)) {
+                case Tag.Utf8:
+                    utf8s.add(reader.utf8V(index));
+                    break;
+                case Tag.Class:
+                    classes.add(reader.utf8V(reader.ref1Index(index)));
+                    break;
+                case Tag.Long:
+                case Tag.Double:
+                    ++index;
+                    break;
+            }
+        }
+        this.utf8s = utf8s.toArray(new String[0]);
+        this.classes = classes.toArray(new String[0]);
+
+        ClassFileWriter writer = this.writer = new ClassFileWriter();
+        reader.copyCPTo(writer);
+        reader.accept(writer);
+        ClassWriter asmWriter = this.asmWriter = new ClassWriter(0);
+        new ClassReader(bytes).accept(asmWriter, 0);
+    }
+
+    @Benchmark
+    public ClassFileWriter pool() {
+        ClassFileWriter writer = new ClassFileWriter();
+        for (String utf8 : utf8s) {
+            writer.findUtf8(utf8);
+        }
+        for (String name : classes) {
+            writer.findRef1(Tag.Class, writer.findUtf8(name));
+        }
+        return writer;
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return writer.toByteArray();
+    }
+
+    @Benchmark
+    public ClassWriter asmPool() {
+        ClassWriter writer = new ClassWriter(0);
+        for (String utf8 : utf8s) {
+            writer.newUTF8(utf8);
+        }
+        for (String name : classes) {
+            writer.newClass(name);
+        }
+        return writer;
+    }
+
+    @Benchmark
+    public byte[] asmToByteArray() {
+        return asmWriter.toByteArray();
+    }
+}
@@ -0,0 +1,181 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.internal;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import jdk.jfr.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Records {@link jdk.jfr.Event}s when module {@code jdk.jfr} is in the boot layer.
+ * <br>
+ * An event is only allocated when its type is enabled by a running recording,
+ * so nothing is allocated otherwise, whether the caller is compiled or not.
+ */
+public final class Flight {
+    private static final boolean AVAILABLE;
+
+    static {
+        Optional<Module> jfr = ModuleLayer.boot().findModule("jdk.jfr");
+        if (jfr.isPresent()) {
+            Flight.class.getModule().addReads(jfr.get());// not required by module-info
+            AVAILABLE = true;
+        } else {
+            AVAILABLE = false;
+        }
+    }
+
+    private Flight() {}
+
+    /** Loaded only when {@code jdk.jfr} is available. */
+    private static final class Types {
+        static final EventType READ = EventType.getEventType(ReadEvent.class);
+        static final EventType ACCEPT = EventType.getEventType(AcceptEvent.class);
+        static final EventType WRITE = EventType.getEventType(WriteEvent.class);
+    }
+
+    public static Object beginRead() {
+        if (!AVAILABLE || !Types.READ.isEnabled()) {
+            return null;
+        }
+        ReadEvent event = new ReadEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endRead(Object event, ClassFileReader reader) {
+        if (event != null) {
+            ReadEvent read = (ReadEvent) event;
+            read.end();
+            if (read.shouldCommit()) {
+                read.className = name(reader);
+                read.size = reader.bytes().length;
+                read.poolCount = reader.count();
+                read.commit();
+            }
+        }
+    }
+
+    public static Object beginAccept() {
+        if (!AVAILABLE || !Types.ACCEPT.isEnabled()) {
+            return null;
+        }
+        AcceptEvent event = new AcceptEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endAccept(Object event, ClassFileReader reader) {
+        if (event != null) {
+            AcceptEvent accept = (AcceptEvent) event;
+            accept.end();
+            if (accept.shouldCommit()) {
+                accept.className = name(reader);
+                accept.size = reader.bytes().length;
+                accept.poolCount = reader.count();
+                accept.commit();
+            }
+        }
+    }
+
+    public static Object beginWrite() {
+        if (!AVAILABLE || !Types.WRITE.isEnabled()) {
+            return null;
+        }
+        WriteEvent event = new WriteEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endWrite(Object event, ClassFileWriter writer, int thisClass, int size) {
+        if (event != null) {
+            WriteEvent write = (WriteEvent) event;
+            write.end();
+            if (write.shouldCommit()) {
+                write.className = thisClass == 0 ? null : writer.utf8V(writer.ref1Index(thisClass));
+                write.size = size;
+                write.poolCount = writer.count();
+                write.commit();
+            }
+        }
+    }
+
+    /**
+     * Decode the name without {@link ClassFileReader#utf8V(int)}, which would fill its cache and count
+     * in {@link dev.oblivruin.jcu.misc.Metrics}. {@code CONSTANT_Utf8_info} after the tag is the format
+     * of {@link DataInputStream#readUTF()}.
+     */
+    private static String name(ClassFileReader reader) {
+        int off = reader.offset(reader.ref1Index(reader.readU2(reader.header + 2)));
+        byte[] bytes = reader.bytes();
+        try {
+            return new DataInputStream(new ByteArrayInputStream(bytes, off + 1, bytes.length - off - 1)).readUTF();
+        } catch (IOException ex) {// malformed
+            return null;
+        }
+    }
+
+    @Name("dev.oblivruin.jcu.Read")
+    @Label("Class Read")
+    @Description("Construction of a ClassFileReader, which indexes the constant pool")
+    @Category("JCU")
+    @StackTrace(false)
+    static final class ReadEvent extends Event {
+        @Label("Class Name")
+        String className;
+        @Label("Size")
+        @DataAmount
+        int size;
+        @Label("Constant Pool Count")
+        int poolCount;
+    }
+
+    @Name("dev.oblivruin.jcu.Accept")
+    @Label("Class Accept")
+    @Description("A pass of ClassFileReader.accept, including the work of the visitor")
+    @Category("JCU")
+    @StackTrace(false)
+    static final class AcceptEvent extends Event {
+        @Label("Class Name")
+        String className;
+        @Label("Size")
+        @DataAmount
+        int size;
+        @Label("Constant Pool Count")
+        int poolCount;
+    }
+
+    @Name("dev.oblivruin.jcu.Write")
+    @Label("Class Write")
+    @Description("ClassFileWriter.toByteArray or writeTo")
+    @Category("JCU")
+    @StackTrace(false)
+    static final class WriteEvent extends Event {
+        @Label("Class Name")
+        String className;
+        @Label("Size")
+        @DataAmount
+        int size;
+        @Label("Constant Pool Count")
+        int poolCount;
+    }
+}
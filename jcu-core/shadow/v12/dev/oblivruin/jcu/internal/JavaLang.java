@@ -0,0 +1,62 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.internal;
+
+import jdk.internal.access.JavaLangAccess;
+import jdk.internal.access.SharedSecrets;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implement by {@link JavaLangAccess}, which is in {@code jdk.internal.access} since JDK 12.
+ * <br>
+ * Need module {@code java.base} export package {@code jdk.internal.access} to this,
+ * the standard Java API is used otherwise.
+ */
+public final class JavaLang {
+    private JavaLang() {}
+
+    /** {@code newStringUTF8NoRepl}, which decodes without replacement, or {@code null}. */
+    private static final MethodHandle UTF8;
+    static {
+        MethodHandle utf8 = null;
+        try {
+            JavaLangAccess access = SharedSecrets.getJavaLangAccess();
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                utf8 = lookup.findVirtual(JavaLangAccess.class, "newStringUTF8NoRepl",
+                        MethodType.methodType(String.class, byte[].class, int.class, int.class));
+            } catch (NoSuchMethodException e) {// JDK 22+, must not share the array
+                utf8 = MethodHandles.insertArguments(lookup.findVirtual(JavaLangAccess.class, "newStringUTF8NoRepl",
+                        MethodType.methodType(String.class, byte[].class, int.class, int.class, boolean.class)), 4, true);
+            }
+            utf8 = utf8.bindTo(access);
+        } catch (IllegalAccessError | ReflectiveOperationException e) {// not exported
+            utf8 = null;
+        }
+        UTF8 = utf8;
+    }
+
+    public static String utf8(byte[] bytes, int off, int len) throws Throwable {
+        return UTF8 != null ?
+                (String) UTF8.invokeExact(bytes, off, len) :
+                new String(bytes, off, len, StandardCharsets.UTF_8);
+    }
+}
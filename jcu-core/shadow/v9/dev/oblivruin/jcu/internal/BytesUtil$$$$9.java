@@ -18,6 +18,8 @@ package dev.oblivruin.jcu.internal;
 
 import jdk.internal.misc.Unsafe;
 
+import java.util.Arrays;
+
 /**
  * Implement by {@link jdk.internal.misc.Unsafe}
  */
@@ -71,4 +73,8 @@ public class BytesUtil$$$$9 {
     public static boolean matchLong(byte[] bytes, int off, long v) {
         return getLong(bytes, off) == v;
     }
+
+    public static boolean equals(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        return Arrays.equals(a, aOff, aOff + len, b, bOff, bOff + len);// vectorizedMismatch
+    }
 }
@@ -19,6 +19,7 @@ package dev.oblivruin.jcu.internal;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 /**
  * More efficient implementation in JDK9
@@ -64,4 +65,7 @@ public final class BytesUtil {
     public static boolean matchLong(byte[] bytes, int off, long v) {
         return v == (long) v8.get(bytes, off);
     }
+    public static boolean equals(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        return Arrays.equals(a, aOff, aOff + len, b, bOff, bOff + len);// vectorizedMismatch
+    }
 }
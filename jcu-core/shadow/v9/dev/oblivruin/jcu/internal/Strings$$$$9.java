@@ -21,6 +21,7 @@ import dev.oblivruin.jcu.misc.ByteArray;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 import static java.lang.invoke.MethodType.*;
 
@@ -34,6 +35,9 @@ import static java.lang.invoke.MethodType.*;
 public final class Strings$$$$9 {
     private static final MethodHandle isLatin1;
     private static final MethodHandle getBytes;
+    /** {@code String(byte[] value, byte coder)}, the array is not copied. */
+    private static final MethodHandle newString;
+    private static final boolean COMPACT_STRINGS;
 //    private static final MethodHandle toChars;
     public static final int HI;
     public static final int LO;
@@ -49,69 +53,176 @@ public final class Strings$$$$9 {
             MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(String.class, MethodHandles.lookup());
             isLatin1 = lookup.findVirtual(String.class, "isLatin1", methodType(boolean.class));
             getBytes = lookup.findGetter(String.class, "value", byte[].class);
+            newString = lookup.findConstructor(String.class, methodType(void.class, byte[].class, byte.class));
+            COMPACT_STRINGS = (boolean) lookup.findStaticGetter(String.class, "COMPACT_STRINGS", boolean.class).invokeExact();
 //            toChars = lookup.findStatic(Class.forName("java.lang.StringLatin1"),
 //                    "inflate",
 //                    methodType(void.class,
 //                            new Class[]{byte[].class, int.class, char[].class, int.class, int.class}));
-        } catch (ReflectiveOperationException e) {
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
     }
 
-    public static int write(String value, ByteArray array) throws Throwable {
+    /** Selects the low 7 bits of every byte. */
+    private static final long LOW7 = 0x7F7F_7F7F_7F7F_7F7FL;
+    private static final long HIGH = 0x8080_8080_8080_8080L;
+    /** Selects the low 7 bits, the other bits and the carry bit of every {@code char}, in a big-endian read. */
+    private static final long CHAR_LOW7, CHAR_REST, CHAR_CARRY;
+    static {
+        if (HI == 8) {
+            CHAR_LOW7 = 0x007F_007F_007F_007FL;
+            CHAR_REST = 0xFF80_FF80_FF80_FF80L;
+            CHAR_CARRY = 0x0080_0080_0080_0080L;
+        } else {// bytes of a char are swapped
+            CHAR_LOW7 = 0x7F00_7F00_7F00_7F00L;
+            CHAR_REST = 0x80FF_80FF_80FF_80FFL;
+            CHAR_CARRY = 0x8000_8000_8000_8000L;
+        }
+    }
+
+    /**
+     * Count 8 Latin-1 bytes or 4 UTF-16 chars per step, values in {@code 0x01..0x7F} are one byte.
+     */
+    public static long utf8Length(String value) throws Throwable {
         byte[] bytes = (byte[]) getBytes.invokeExact(value);
+        int len = bytes.length;
+        int index = 0;
         if ((boolean) isLatin1.invokeExact(value)) {
-            int b2 = 0;
-            for (byte b : bytes) {
-                if ((b & 0b1000_0000) != 0 || b == 0) {
-                    ++b2;
+            long count = len;
+            for (int limit = len - 8; index <= limit; index+=8) {
+                long word = BytesUtil.getLong(bytes, index);
+                // the carry of the low 7 bits sets the high bit unless a byte is 0
+                count+=(8 - Long.bitCount(((word & LOW7) + LOW7) & ~word & HIGH));
+            }
+            for (; index < len; ++index) {
+                if (bytes[index] <= 0) {// 0 or 0x80..0xFF
+                    ++count;
                 }
             }
-            if (b2 == 0) {
-                array.add(bytes);
-                return bytes.length;
-            } else {
-                array.ensureFree(bytes.length + b2);
-                byte[] dst = array.data;
-                int pointer = array.length - 1;
-                for (byte b : bytes) {
-                    if ((b & 0b1000_0000) != 0) {
-                        dst[++pointer] = (byte) (b >>> 6 | 0b1100_0000);
-                        dst[++pointer] = (byte) (b       & 0b1011_1111);// 8th bit is 1
-                    } else if (b == 0) {
-                        dst[++pointer] = (byte) 0xC0;
-                        dst[++pointer] = (byte) 0x80;
-                    } else {
-                        dst[++pointer] = b;
+            return count;
+        } else {
+            long count = len >> 1;
+            for (int limit = len - 8; index <= limit; index+=8) {
+                long word = BytesUtil.getLong(bytes, index);
+                if ((word & CHAR_REST) != 0 || (((word & CHAR_LOW7) + CHAR_LOW7) & CHAR_CARRY) != CHAR_CARRY) {
+                    for (int end = index + 8, i = index; i < end; i+=2) {
+                        count+=extra(((bytes[i] & 0xFF) << HI) | ((bytes[i + 1] & 0xFF) << LO));
                     }
                 }
-                array.length = pointer + 1;//update length
-                return bytes.length + b2;
+            }
+            for (; index < len; index+=2) {
+                count+=extra(((bytes[index] & 0xFF) << HI) | ((bytes[index + 1] & 0xFF) << LO));
+            }
+            return count;
+        }
+    }
+
+    private static int extra(int ch) {
+        return ch >= 0x800 ? 2 : (ch >= 0x80 || ch == 0) ? 1 : 0;
+    }
+
+    public static int write(String value, ByteArray array) throws Throwable {
+        int length = (int) utf8Length(value);
+        write(value, array, length);
+        return length;
+    }
+
+    /**
+     * Write 8 Latin-1 bytes or 4 UTF-16 chars per step while they are in {@code 0x01..0x7F},
+     * other values are encoded one by one until the next aligned step.
+     */
+    public static void write(String value, ByteArray array, int length) throws Throwable {
+        byte[] bytes = (byte[]) getBytes.invokeExact(value);
+        int len = bytes.length;
+        array.ensureFree(length);
+        byte[] dst = array.data;
+        int pointer = array.length;
+        int index = 0;
+        if ((boolean) isLatin1.invokeExact(value)) {
+            if (length == len) {// one-byte chars
+                System.arraycopy(bytes, 0, dst, pointer, len);
+                array.length = pointer + len;
+                return;
+            }
+            for (int limit = len - 8; index <= limit; index+=8) {
+                long word = BytesUtil.getLong(bytes, index);
+                if ((((word & LOW7) + LOW7) & ~word & HIGH) == HIGH) {
+                    BytesUtil.setLong(dst, pointer, word);
+                    pointer+=8;
+                    continue;
+                }
+                for (int end = index + 8, i = index; i < end; ++i) {
+                    pointer = latin1(dst, pointer, bytes[i]);
+                }
+            }
+            for (; index < len; ++index) {
+                pointer = latin1(dst, pointer, bytes[index]);
             }
         } else {
-            array.ensureFree(3*bytes.length);// pessimistic expansion strategy
-            byte[] dst = array.data;
-            int pointer = array.length - 1;
-            int ch;
-            for (int index = -1, len = bytes.length - 1; index < len;  ) {
-                ch = ((bytes[++index] & 0xFF) << HI) | ((bytes[++index] & 0xFF) << LO);
-                if (ch == 0) {
-                    dst[++pointer] = (byte) 0xC0;
-                    dst[++pointer] = (byte) 0x80;
-                } else if (ch < 0x80) {
-                    dst[++pointer] = (byte) ch;
-                } else if (ch < 0x800) {
-                    dst[++pointer] = (byte) (0xC0 | (ch >> 6));
-                    dst[++pointer] = (byte) (0x80 | (ch & 0x3F));
-                } else {
-                    dst[++pointer] = (byte) (0xE0 | ( ch >> 12));
-                    dst[++pointer] = (byte) (0x80 | ((ch >> 6) & 0x3F));
-                    dst[++pointer] = (byte) (0x80 | ( ch       & 0x3F));
+            for (int limit = len - 8; index <= limit; index+=8) {
+                long word = BytesUtil.getLong(bytes, index);
+                if ((word & CHAR_REST) == 0 && (((word & CHAR_LOW7) + CHAR_LOW7) & CHAR_CARRY) == CHAR_CARRY) {
+                    int shift = HI == 8 ? 0 : 8;
+                    dst[pointer    ] = (byte) (word >>> (48 + shift));
+                    dst[pointer + 1] = (byte) (word >>> (32 + shift));
+                    dst[pointer + 2] = (byte) (word >>> (16 + shift));
+                    dst[pointer + 3] = (byte) (word >>> shift);
+                    pointer+=4;
+                    continue;
                 }
+                for (int end = index + 8, i = index; i < end; i+=2) {
+                    pointer = utf16(dst, pointer, ((bytes[i] & 0xFF) << HI) | ((bytes[i + 1] & 0xFF) << LO));
+                }
+            }
+            for (; index < len; index+=2) {
+                pointer = utf16(dst, pointer, ((bytes[index] & 0xFF) << HI) | ((bytes[index + 1] & 0xFF) << LO));
             }
-            int len = ++pointer - array.length;
-            array.length = pointer;
-            return len;
+        }
+        array.length = pointer;
+    }
+
+    /**
+     * Create a string with coder {@code LATIN1} which owns {@code value}, unless compact strings are disabled.
+     */
+    public static String newLatin1(byte[] value) throws Throwable {
+        return COMPACT_STRINGS ?
+                (String) newString.invokeExact(value, (byte) 0) :
+                new String(value, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int latin1(byte[] dst, int pointer, byte b) {
+        if ((b & 0b1000_0000) != 0) {
+            dst[pointer    ] = (byte) ((b & 0xFF) >>> 6 | 0b1100_0000);
+            dst[pointer + 1] = (byte) (b       & 0b1011_1111);// 8th bit is 1
+            return pointer + 2;
+        } else if (b == 0) {
+            dst[pointer    ] = (byte) 0xC0;
+            dst[pointer + 1] = (byte) 0x80;
+            return pointer + 2;
+        } else {
+            dst[pointer] = b;
+            return pointer + 1;
+        }
+    }
+
+    private static int utf16(byte[] dst, int pointer, int ch) {
+        if (ch == 0) {
+            dst[pointer    ] = (byte) 0xC0;
+            dst[pointer + 1] = (byte) 0x80;
+            return pointer + 2;
+        } else if (ch < 0x80) {
+            dst[pointer] = (byte) ch;
+            return pointer + 1;
+        } else if (ch < 0x800) {
+            dst[pointer    ] = (byte) (0xC0 | (ch >> 6));
+            dst[pointer + 1] = (byte) (0x80 | (ch & 0x3F));
+            return pointer + 2;
+        } else {
+            dst[pointer    ] = (byte) (0xE0 | ( ch >> 12));
+            dst[pointer + 1] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+            dst[pointer + 2] = (byte) (0x80 | ( ch       & 0x3F));
+            return pointer + 3;
         }
     }
 }
@@ -0,0 +1,54 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.misc;
+
+import dev.oblivruin.jcu.ClassFileWriter;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Implement by {@link MethodHandles.Lookup#defineClass(byte[])}
+ */
+public final class ClassDefiner {
+    private ClassDefiner() {}
+
+    public static Class<?> define(MethodHandles.Lookup lookup, ClassFileWriter writer) {
+        try {
+            return lookup.defineClass(writer.toByteArray());
+        } catch (IllegalAccessException ex) {
+            throw new IllegalAccessError(ex.getMessage());
+        }
+    }
+
+    public static Class<?>[] define(MethodHandles.Lookup lookup, ClassFileWriter... writers) {
+        Class<?>[] ret = new Class<?>[writers.length];
+        for (int index = 0; index < writers.length; ++index) {
+            ret[index] = define(lookup, writers[index]);
+        }
+        return ret;
+    }
+
+    public static MethodHandles.Lookup defineHidden(MethodHandles.Lookup lookup, ClassFileWriter writer,
+                                                    boolean initialize, boolean nestmate) {
+        throw new UnsupportedOperationException("Hidden class requires JDK 15");
+    }
+
+    public static MethodHandles.Lookup[] defineHidden(MethodHandles.Lookup lookup, boolean initialize,
+                                                      boolean nestmate, ClassFileWriter... writers) {
+        throw new UnsupportedOperationException("Hidden class requires JDK 15");
+    }
+}
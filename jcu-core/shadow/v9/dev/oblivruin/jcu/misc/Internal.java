@@ -16,17 +16,28 @@
 // limitations under the License.
 package dev.oblivruin.jcu.misc;
 
+import jdk.internal.misc.Unsafe;
+
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
 import java.net.URL;
 import java.security.*;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
 
 public final class Internal {
     private Internal() {}
 
+    public static final String BYTES_BACKEND = "dev.oblivruin.jcu.bytes";
+
+    private static final String BYTES_UTIL = "dev.oblivruin.jcu.internal.BytesUtil";
+
     public static void loadFastC() {
         try {
             MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(Object.class, MethodHandles.lookup());
@@ -37,22 +48,102 @@ public final class Internal {
             URL url = Internal.class.getProtectionDomain().getCodeSource().getLocation();
             MethodHandle handle = lookup.findVirtual(ClassLoader.class, "defineClass",
                     MethodType.methodType(Class.class, new Class[]{String.class, byte[].class, int.class, int.class, ProtectionDomain.class}));
-            if (java.isExported("jdk.internal.misc", self)) {
-                doLoad(loader, url, handle, perm, "dev.oblivruin.jcu.internal.BytesUtil", "/fastC/BytesUtil$$$$9");
+            MethodHandle findLoaded = lookup.findVirtual(ClassLoader.class, "findLoadedClass",
+                    MethodType.methodType(Class.class, String.class));
+            if ((Class<?>) findLoaded.invokeExact(loader, BYTES_UTIL) == null) {// can't be replaced once loaded
+                String backend = selectBytes(java.isExported("jdk.internal.misc", self));
+                if (backend.equals("unsafe")) {
+                    doLoad(loader, url, handle, perm, BYTES_UTIL, "/fastC/BytesUtil$$$$9");
+                } else if (backend.equals("portable") && isJar(url)) {// a class directory is not versioned
+                    doLoad(loader, url, handle, perm, BYTES_UTIL, null);
+                }
             }
             doLoad(loader, url, handle, perm, "dev.oblivruin.jcu.internal.Strings", "/fastC/Strings$$$$9");
-
-        } catch (ReflectiveOperationException ex) {
+        } catch (VirtualMachineError vmError) {
+            throw vmError;
+        } catch (Throwable ex) {
             ex.printStackTrace(System.err);
         }
     }
 
+    /**
+     * Select the backend of {@code BytesUtil}, unless forced by {@link #BYTES_BACKEND}:
+     * <ul>
+     *     <li>{@code portable} if the JIT compiler is disabled, calls to {@link VarHandle} and {@link Unsafe} are not inlined in interpreter</li>
+     *     <li>{@code unsafe} if {@code jdk.internal.misc} is exported and the platform supports unaligned access</li>
+     *     <li>{@code varhandle} otherwise, which is loaded without any help</li>
+     * </ul>
+     * An unknown forced value is ignored with a warning.
+     */
+    private static String selectBytes(boolean exported) {
+        String forced = System.getProperty(BYTES_BACKEND);
+        if (forced != null) {
+            switch (forced) {
+                case "unsafe":
+                    return exported ? forced : "varhandle";
+                case "portable":
+                case "varhandle":
+                    return forced;
+                default:
+                    System.err.println("Ignored -D" + BYTES_BACKEND + "=" + forced +
+                            ", expected portable, varhandle or unsafe");
+            }
+        }
+        if (System.getProperty("java.vm.info", "").contains("interpreted mode")) {
+            return "portable";
+        }
+        return exported && Unsafe.getUnsafe().unalignedAccess() ? "unsafe" : "varhandle";
+    }
+
+    public static String bytesBackend() {
+        Class<?> type;
+        try {
+            type = Class.forName(BYTES_UTIL, true, Internal.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+        for (Field field : type.getDeclaredFields()) {
+            if (field.getType() == VarHandle.class) {
+                return "varhandle";
+            } else if (field.getType().getName().equals("jdk.internal.misc.Unsafe")) {// not always accessible
+                return "unsafe";
+            }
+        }
+        return "portable";
+    }
+
+    private static boolean isJar(URL url) throws Exception {
+        return url.getProtocol().equals("file") && new File(url.toURI()).isFile();
+    }
+
+    /**
+     * Read the root entry of a multi-release jar, a directory is not supported.
+     */
+    private static byte[] baseVersion(URL url, String name) throws Exception {
+        try (JarFile jar = new JarFile(new File(url.toURI()))) {// not versioned
+            ZipEntry entry = jar.getEntry(name);
+            try (InputStream in = jar.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    /**
+     * @param resName the resource of the fast class, or {@code null} for the root entry of the jar
+     */
     @SuppressWarnings("DataFlowIssue")
     private static void doLoad(ClassLoader loader, URL u1, MethodHandle handle, PermissionCollection perm , String className, String resName) {
-        try (InputStream in = Internal.class.getResource(resName).openStream()) {
-            ByteArrayOutputStream reader = new ByteArrayOutputStream(in.available());
-            in.transferTo(reader);
-            byte[] bytes = reader.toByteArray();
+        try {
+            byte[] bytes;
+            if (resName == null) {
+                bytes = baseVersion(u1, className.replace('.', '/') + ".class");
+            } else {
+                try (InputStream in = Internal.class.getResource(resName).openStream()) {
+                    ByteArrayOutputStream reader = new ByteArrayOutputStream(in.available());
+                    in.transferTo(reader);
+                    bytes = reader.toByteArray();
+                }
+            }
             Class<?> ignored = (Class<?>) handle.invokeExact(loader, className, bytes, 0, bytes.length,
                     new ProtectionDomain(new CodeSource(u1, (CodeSigner[]) null), perm, loader, null));
         } catch (VirtualMachineError vmError) {
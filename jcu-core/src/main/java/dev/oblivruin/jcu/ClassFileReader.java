@@ -16,8 +16,13 @@
 // limitations under the License.
 package dev.oblivruin.jcu;
 
+import dev.oblivruin.jcu.builds.api.perf.AllocationBudget;
 import dev.oblivruin.jcu.constant.Tag;
 import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.internal.Flight;
+import dev.oblivruin.jcu.internal.JavaLang;
+import dev.oblivruin.jcu.internal.Strings;
+import dev.oblivruin.jcu.misc.Metrics;
 import jdk.internal.vm.annotation.Stable;
 
 import java.nio.charset.StandardCharsets;
@@ -51,11 +56,11 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
     protected char[] buffer = null;
     protected final String[] utf8Cache;
     /**
-     * Position of first method.
+     * Position of {@code methods_count}, 0 if not computed yet.
      */
     protected int mPos = 0;
     /**
-     * Position of first attribute.
+     * Position of {@code attributes_count} of the class, 0 if not computed yet.
      */
     protected int aPos = 0;
 
@@ -65,6 +70,7 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
      *             <b>DO NOT CHANGE ELEMENTS IN THIS ARRAY OR UNEXPECTED BEHAVIOR MAY OCCUR!!!</b>
      */
     public ClassFileReader(byte[] bytes) {
+        Object event = Flight.beginRead();
         this.bytes = bytes;
         int cCount = readU2(8);
         int maxStrLen = 20;
@@ -120,6 +126,11 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
             }
         }
         utf8Cache = new String[s];
+        if (Metrics.ENABLED) {
+            Metrics.add(Metrics.CLASSES_READ, 1);
+            Metrics.add(Metrics.BYTES_READ, bytes.length);
+        }
+        Flight.endRead(event, this);
     }
 
     @Override
@@ -171,7 +182,7 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
 
     @Override
     public int findRef2(int tag, int refIndex1, int refIndex2) {
-        return findC5(tag, (refIndex1 << 8) | refIndex2);
+        return findC5(tag, (refIndex1 << 16) | refIndex2);
     }
 
     @Override
@@ -185,19 +196,83 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
         return -1;
     }
 
+    /** @throws IndexOutOfBoundsException {@inheritDoc}*/
     @Override
     public IRef1 ref1V(int index) {
-        throw new UnsupportedOperationException();//todo
+        return new Ref1(cpInfo[index]);
     }
 
+    /** @throws IndexOutOfBoundsException {@inheritDoc}*/
     @Override
     public IRef2 ref2V(int index) {
-        throw new UnsupportedOperationException();//todo
+        return new Ref2(cpInfo[index]);
     }
 
+    /** @throws IndexOutOfBoundsException {@inheritDoc}*/
     @Override
     public IMethodHandle methodHandleV(int index) {
-        throw new UnsupportedOperationException();//todo
+        return new MethodHandleV(cpInfo[index]);
+    }
+
+    /**
+     * Flyweight views over {@link #bytes}, {@code off} points to the byte next to the tag.
+     */
+    abstract class Constant implements IConstant {
+        final int off;
+
+        Constant(int off) {
+            this.off = off;
+        }
+
+        @Override
+        public final int tag() {
+            return bytes[off - 1];
+        }
+    }
+
+    final class Ref1 extends Constant implements IRef1 {
+        Ref1(int off) {
+            super(off);
+        }
+
+        @Override
+        public int refIndex() {
+            return readU2(off);
+        }
+    }
+
+    final class Ref2 extends Constant implements IRef2 {
+        Ref2(int off) {
+            super(off);
+        }
+
+        @Override
+        public int refIndex1() {
+            return readU2(off);
+        }
+
+        @Override
+        public int refIndex2() {
+            return readU2(off + 2);
+        }
+    }
+
+    final class MethodHandleV extends IMethodHandle {
+        final int off;
+
+        MethodHandleV(int off) {
+            this.off = off;
+        }
+
+        @Override
+        int kind() {
+            return bytes[off];
+        }
+
+        @Override
+        int refIndex() {
+            return readU2(off + 1);
+        }
     }
 
     @Override
@@ -260,42 +335,98 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
     public String utf8V(int index) {
         java.lang.String str = utf8Cache[index];
         if (str != null) {
+            if (Metrics.ENABLED) {
+                Metrics.add(Metrics.UTF8_CACHE_HITS, 1);
+            }
             return str;
         } else {
+            if (Metrics.ENABLED) {
+                Metrics.add(Metrics.UTF8_DECODED, 1);
+            }
             return utf8Cache[index] = readUtf8((index = cpInfo[index]) + 2, readU2(index));
         }
     }
 
     protected final String readUtf8(int off, int len) {
         byte[] bytes = this.bytes;
-        for (int index = off, end = off + len; index < end; ++index) {
+        int end = off + len;
+        int index = off;
+        for (int limit = end - 8; index <= limit; index+=8) {// 8 one-byte chars per step
+            if ((BytesUtil.getLong(bytes, index) & 0x8080_8080_8080_8080L) != 0) {
+                break;
+            }
+        }
+        for (; index < end; ++index) {
             if ((bytes[index] & 0b1000_0000) != 0) {
-                char[] buffer = this.buffer == null ?
-                        this.buffer = new char[maxStrLen] :
-                        this.buffer;
-                int pointer = -1;
-                for (; off < index; ++off) {
-                    buffer[++pointer] = (char) bytes[off];
-                }
-                byte b;
-                for (; off < end; ++off) {
-                    b = bytes[off];
-                    buffer[++pointer] =
-                            ((b & 0b1000_0000) != 0) ?
-                                    (((b & 0b0010_0000) != 0) ?
-                                            (char)    (((b & 0b0000_1111) << 12) |
-                                            ((bytes[++off] & 0b0011_1111) << 6 ) |
-                                             (bytes[++off] & 0b0011_1111))
-                                            :  (char) (((b & 0b0001_1111) << 6) |
-                                             (bytes[++off] & 0b0011_1111)))
-                                    : (char) b;
-                }
-                return new String(buffer, 0, ++pointer);
+                return readUtf8(off, index, end);
             }
         }// one-byte char
         return new String(bytes, off, len, StandardCharsets.ISO_8859_1);
     }
 
+    /**
+     * Decode into an exact Latin-1 array owned by the string if all chars are below {@code 0x100}
+     * (lead bytes {@code 0xC0..0xC3}), as standard UTF-8 if there is no U+0000 or surrogate
+     * (lead bytes {@code 0xC0} and {@code 0xED}), otherwise into {@link #buffer}.
+     *
+     * @param index the position of the first multibyte char
+     */
+    private String readUtf8(int off, int index, int end) {
+        byte[] bytes = this.bytes;
+        int count = end - off;
+        boolean latin1 = true, standard = true;
+        byte b;
+        for (int pos = index; pos < end; ++pos) {
+            b = bytes[pos];
+            if ((b & 0b1000_0000) != 0) {
+                if ((b & 0b0010_0000) == 0) {// 2 bytes
+                    latin1 &= (b & 0b1111_1100) == 0b1100_0000;
+                    standard &= b != (byte) 0xC0;
+                    --count;
+                    ++pos;
+                } else {// 3 bytes
+                    latin1 = false;
+                    standard &= b != (byte) 0xED;
+                    pos+=2;
+                }
+            }
+        }
+        if (latin1) {
+            byte[] value = new byte[count];
+            int pointer = index - off;
+            System.arraycopy(bytes, off, value, 0, pointer);
+            for (off = index; off < end; ++off) {
+                b = bytes[off];
+                value[pointer++] = (b & 0b1000_0000) != 0 ?
+                        (byte) (((b & 0b0000_0011) << 6) | (bytes[++off] & 0b0011_1111)) :
+                        b;
+            }
+            return Strings.newLatin1(value);
+        } else if (standard) {
+            return JavaLang.utf8(bytes, off, end - off);
+        }
+        char[] buffer = this.buffer == null ?
+                this.buffer = new char[maxStrLen] :
+                this.buffer;
+        int pointer = -1;
+        for (; off < index; ++off) {
+            buffer[++pointer] = (char) bytes[off];
+        }
+        for (; off < end; ++off) {
+            b = bytes[off];
+            buffer[++pointer] =
+                    ((b & 0b1000_0000) != 0) ?
+                            (((b & 0b0010_0000) != 0) ?
+                                    (char)    (((b & 0b0000_1111) << 12) |
+                                    ((bytes[++off] & 0b0011_1111) << 6 ) |
+                                     (bytes[++off] & 0b0011_1111))
+                                    :  (char) (((b & 0b0001_1111) << 6) |
+                                     (bytes[++off] & 0b0011_1111)))
+                            : (char) b;
+        }
+        return new String(buffer, 0, ++pointer);
+    }
+
     /** @throws IndexOutOfBoundsException {@inheritDoc}*/
     @Override
     public final int intV(int index) {
@@ -399,13 +530,16 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
         }
     }
 
+    @AllocationBudget(64)
     public void accept(IRawClassVisitor rawClassVisitor) {
+        Object event = Flight.beginAccept();
         int[] array;
         int off = header + 7;
         if (interfaceCount > 0) {
             array = new int[interfaceCount];
             for (int index = 0; index < interfaceCount; ++index) {
-                array[index] = (bytes[++off] << 8) | bytes[++off];
+                array[index] = readU2(++off);
+                ++off;
             }
         } else {
             array = null;
@@ -425,6 +559,7 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
             --count0;
         }
         acceptAttributes(rawClassVisitor, off);// implicit  visitEnd()
+        Flight.endAccept(event, this);
     }
 
     /**
@@ -449,6 +584,61 @@ public class ClassFileReader implements IConstantPool, IntFunction<char[]> {
         return header + 8 + interfaceCount*2;
     }
 
+    /**
+     * @return the position of {@code methods_count}
+     */
+    public final int methodPos() {
+        int off = mPos;
+        if (off == 0) {
+            off = fieldPos();
+            int count = readU2(off);
+            for (off+=2; count > 0; --count) {
+                off = skipAttributes(off + 6);
+            }
+            mPos = off;
+        }
+        return off;
+    }
+
+    /**
+     * @return the position of {@code attributes_count} of the class
+     */
+    public final int attributePos() {
+        int off = aPos;
+        if (off == 0) {
+            off = methodPos();
+            int count = readU2(off);
+            for (off+=2; count > 0; --count) {
+                off = skipAttributes(off + 6);
+            }
+            aPos = off;
+        }
+        return off;
+    }
+
+    /**
+     * @param off point to {@code attributes_count}
+     * @return the position after the attributes structure
+     */
+    public final int skipAttributes(int off) {
+        int count = readU2(off);
+        for (off+=2; count > 0; --count) {
+            off+=(6 + readInt(off + 2));
+        }
+        return off;
+    }
+
+    /**
+     * Returns the class file bytes of this reader.
+     * <br>
+     * <b>DO NOT CHANGE ELEMENTS IN THIS ARRAY OR UNEXPECTED BEHAVIOR MAY OCCUR!!!</b>
+     *
+     * @return the class file bytes
+     */
+    public final byte[] bytes() {
+        return bytes;
+    }
+
     // bytes reader
     public final int readU2(int index) {
         return BytesUtil.getUShort(bytes, index);
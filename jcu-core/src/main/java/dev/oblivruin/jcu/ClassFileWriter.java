@@ -16,14 +16,18 @@
 // limitations under the License.
 package dev.oblivruin.jcu;
 
+import dev.oblivruin.jcu.builds.api.perf.AllocationBudget;
 import dev.oblivruin.jcu.constant.Tag;
 import dev.oblivruin.jcu.internal.Strings;
 import dev.oblivruin.jcu.misc.ByteArray;
 import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.internal.Flight;
 import dev.oblivruin.jcu.misc.IntArray;
+import dev.oblivruin.jcu.misc.Metrics;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -115,6 +119,26 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         cpInfo.length = 1;
     }
 
+    /** Learns sizes from this writer, or {@code null}. */
+    private final Sizing sizing;
+    private boolean learned = false;
+
+    public ClassFileWriter() {
+        this.sizing = null;
+    }
+
+    /**
+     * Construct a writer whose buffers are preallocated to the typical sizes learned by {@code sizing},
+     * the sizes of this writer are learned when it's written.
+     *
+     * @param sizing shared by writers of similar classes
+     * @see Sizing#newWriter()
+     */
+    public ClassFileWriter(Sizing sizing) {
+        this.sizing = sizing;
+        sizing.preallocate(this);
+    }
+
     @Override
     public final int count() {
         return cpInfo.length;
@@ -147,12 +171,16 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
     }
 
     @Override
+    @AllocationBudget(0)
     public final int findUtf8(String value) {
         if (value == null) {
             return 0;
         }
         Integer v = utf8Map.get(value);
         if (v != null) {
+            if (Metrics.ENABLED) {
+                Metrics.add(Metrics.CONSTANTS_DEDUPLICATED, 1);
+            }
             return v;
         }
         return createUtf8(value);
@@ -164,13 +192,17 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
      * @return the index where the utf8 constant is placed
      */
     protected final int createUtf8(String value) {
+        long length = Strings.utf8Length(value);
+        if (length > 65535) {// rejected before anything is written
+            throw new Utf8TooLongException(cpInfo.length, value, (int) Math.min(length, Integer.MAX_VALUE));
+        }
+        int len = (int) length;
+        ByteArray head = this.head;
+        head.ensureFree(3 + len);
         int pos = head.length;
         // reserve for tag and length
         head.length+=3;
-        int len = Strings.write(value, head);
-        if (len > 65535) {
-            throw new Utf8TooLongException(cpInfo.length, value, len);
-        }
+        Strings.write(value, head, len);
         byte[] bytes = head.data;
         bytes[pos] = Tag.Utf8;
         BytesUtil.setUShort(bytes, pos + 1, len);
@@ -178,6 +210,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         len = cpInfo.length;
         cpInfo.add(pos);
         utf8Map.put(value, len);
+        if (Metrics.ENABLED) {
+            Metrics.add(Metrics.CONSTANTS_CREATED, 1);
+        }
         return len;
     }
 
@@ -192,6 +227,7 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
     }
 
     @Override
+    @AllocationBudget(0)
     public final int findC5(int tag, int value) {
         int index = cpInfo.length;
         byte[] h = head.data;
@@ -200,6 +236,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         while (--index > 0) {
             if (h[pos = cpInf[index]] == tag) {
                 if (BytesUtil.matchInt(h, pos + 1, value)) {
+                    if (Metrics.ENABLED) {
+                        Metrics.add(Metrics.CONSTANTS_DEDUPLICATED, 1);
+                    }
                     return index;
                 }
             }
@@ -219,6 +258,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         head.data[pos] = (byte) tag;
         BytesUtil.setInt(head.data, pos + 1, value);
         head.length+=5;
+        if (Metrics.ENABLED) {
+            Metrics.add(Metrics.CONSTANTS_CREATED, 1);
+        }
         return cpInfo.length - 1;
     }
 
@@ -233,6 +275,7 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
     }
 
     @Override
+    @AllocationBudget(0)
     public final int findC9(int tag, long value) {
         int index = cpInfo.length;
         byte[] data = head.data;
@@ -240,6 +283,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         int pos;
         while (--index > 0) {
             if (data[pos = cpInf[index]] == tag && BytesUtil.matchLong(data, pos + 1, value)) {
+                if (Metrics.ENABLED) {
+                    Metrics.add(Metrics.CONSTANTS_DEDUPLICATED, 1);
+                }
                 return index;
             }
         }
@@ -260,10 +306,14 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         data[pos] = (byte) tag;
         BytesUtil.setLong(data, pos + 1, value);
         head.length+=9;
+        if (Metrics.ENABLED) {
+            Metrics.add(Metrics.CONSTANTS_CREATED, 1);
+        }
         return cpInfo.length - 2;
     }
 
     @Override
+    @AllocationBudget(0)
     public final int findRef1(int tag, int refIndex) {
         int index = cpInfo.length;
         byte[] h = head.data;
@@ -273,6 +323,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
             pos = cpInf[index];
             if (h[pos] == tag &&
                     BytesUtil.getShort(h, pos + 1) == refIndex) {
+                if (Metrics.ENABLED) {
+                    Metrics.add(Metrics.CONSTANTS_DEDUPLICATED, 1);
+                }
                 return index;
             }
         }
@@ -287,6 +340,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         data[pos] = (byte) tag;
         BytesUtil.setUShort(data, pos + 1, refIndex);
         head.length+=3;
+        if (Metrics.ENABLED) {
+            Metrics.add(Metrics.CONSTANTS_CREATED, 1);
+        }
         return cpInfo.length - 1;
     }
 
@@ -296,6 +352,7 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
     }
 
     @Override
+    @AllocationBudget(0)
     public final int findMethodHandle(int kind, int refIndex) {
         int index = cpInfo.length;
         byte[] data = head.data;
@@ -306,6 +363,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
             if (data[pos] == Tag.MethodHandle &&
                     data[pos+1] == kind &&
                     BytesUtil.matchUShort(data, pos + 2, refIndex)) {
+                if (Metrics.ENABLED) {
+                    Metrics.add(Metrics.CONSTANTS_DEDUPLICATED, 1);
+                }
                 return index;
             }
         }
@@ -321,6 +381,9 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         data[pos + 1] = (byte) kind;
         BytesUtil.setUShort(data, pos + 2, refIndex);
         head.length+=4;
+        if (Metrics.ENABLED) {
+            Metrics.add(Metrics.CONSTANTS_CREATED, 1);
+        }
         return cpInfo.length - 1;
     }
 
@@ -481,6 +544,14 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         visitHead(version, access, thisCIndex, superCIndex);
     }
 
+    /**
+     * @return {@code this_class} given by {@link #visit(int, int, int, int, int[])},
+     * the index of a {@code CONSTANT_Class_info} entry
+     */
+    public final int thisClass() {
+        return BytesUtil.getUShort(body.data, 2);
+    }
+
     protected final void visitHead(int ver, int access, int thisCIndex, int superCIndex) {
         BytesUtil.setInt(head.data, 4, ver);
         byte[] data = body.data;
@@ -547,37 +618,88 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
         BytesUtil.setUShort(body.data, BytesUtil.getUShort(body.data, 6) * 2 + 8, countF);
     }
 
+    /**
+     * Returns the length of the class file.
+     *
+     * @return the number of bytes {@link #toByteArray()} would return
+     */
+    public final int size() {
+        return head.length + body.length + meth.length + 4/*for methods_count and attribute count*/ + attr.length;
+    }
+
+    private void learn() {
+        if (sizing != null && !learned) {
+            learned = true;
+            sizing.learn(this);
+        }
+    }
+
+    private void written() {
+        Metrics.add(Metrics.CLASSES_WRITTEN, 1);
+        Metrics.add(Metrics.BYTES_WRITTEN, size());
+    }
+
     public final byte[] toByteArray() {
-        int off = head.length;
+        byte[] ret = new byte[size()];
+        writeTo(ret, 0);
+        return ret;
+    }
+
+    /**
+     * Write the class file into given array, which allows reusing a buffer for many classes.
+     *
+     * @param dst the destination array, must have {@link #size()} bytes available from {@code off}
+     * @param off starting position in {@code dst}
+     * @return the end position of written bytes (exclusive)
+     */
+    public final int writeTo(byte[] dst, int off) {
+        if (Metrics.ENABLED) {
+            written();
+        }
+        learn();
+        Object event = Flight.beginWrite();
+        int end = write(dst, off);
+        Flight.endWrite(event, this, BytesUtil.getUShort(body.data, 2), size());
+        return end;
+    }
+
+    private int write(byte[] dst, int off) {
+        int l1 = head.length;
         int l2 = body.length;
         int l3 = meth.length;
         int l4 = attr.length;
-        byte[] ret = new byte[off + l2 + l3 + 4/*for methods_count and attribute count*/ + l4];
-        System.arraycopy(head.data, 0, ret, 0, off);
-        System.arraycopy(body.data, 0, ret, off, l2);
+        System.arraycopy(head.data, 0, dst, off, l1);
+        off+=l1;
+        System.arraycopy(body.data, 0, dst, off, l2);
         off+=l2;
         if (l3 == 0) {
-            ret[off] = 0;
-            ret[++off] = 0;
+            dst[off] = 0;
+            dst[++off] = 0;
             ++off;
         } else {
-            ret[off] = (byte) (countM >>> 8);
-            ret[++off] = (byte) countM;
-            System.arraycopy(meth.data, 0, ret, ++off, l3);// off = head.length + l2 + 2
+            dst[off] = (byte) (countM >>> 8);
+            dst[++off] = (byte) countM;
+            System.arraycopy(meth.data, 0, dst, ++off, l3);
             off+=l3;
         }
         if (l4 == 0) {
-            ret[off] = 0;
-            ret[++off] = 0;
+            dst[off] = 0;
+            dst[++off] = 0;
+            return off + 1;
         } else {
-            ret[off] = (byte) (countA >>> 8);
-            ret[++off] = (byte)  countA;
-            System.arraycopy(attr.data, 0, ret, ++off, l4);// off = head.length + l2 + l3 + 4
+            dst[off] = (byte) (countA >>> 8);
+            dst[++off] = (byte)  countA;
+            System.arraycopy(attr.data, 0, dst, ++off, l4);
+            return off + l4;
         }
-        return ret;
     }
 
     public final void writeTo(OutputStream output) throws IOException {
+        if (Metrics.ENABLED) {
+            written();
+        }
+        learn();
+        Object event = Flight.beginWrite();
         output.write(head.data, 0, head.length);
         output.write(body.data, 0, body.length);
         if (countM == 0) {
@@ -596,5 +718,63 @@ public class ClassFileWriter implements IRawClassVisitor, IConstantPool {//todo:
             output.write(countA);
             output.write(attr.data, 0, attr.length);
         }
+        Flight.endWrite(event, this, BytesUtil.getUShort(body.data, 2), size());
+    }
+
+    /**
+     * Adaptive initial sizes of {@link ClassFileWriter} buffers, which are exponentially weighted moving averages
+     * of the sizes of recently written classes, so that repeated growth of buffers is avoided in a generation loop.
+     * <br>
+     * It may be shared by threads, a race only loses a sample.
+     * <pre>{@code
+     * ClassFileWriter.Sizing sizing = new ClassFileWriter.Sizing();
+     * for (...) {
+     *     ClassFileWriter writer = sizing.newWriter();
+     *     ...
+     *     byte[] bytes = writer.toByteArray();
+     * }
+     * }</pre>
+     *
+     * @author OblivRuinDev
+     */
+    public static final class Sizing {
+        /** Averages of {@code head}, {@code body}, {@code meth}, {@code attr} and constant count. */
+        private int head, body, meth, attr, count;
+
+        /** @return a new writer using this sizing */
+        public ClassFileWriter newWriter() {
+            return new ClassFileWriter(this);
+        }
+
+        void preallocate(ClassFileWriter writer) {
+            reserve(writer.head, head);
+            reserve(writer.body, body);
+            reserve(writer.meth, meth);
+            reserve(writer.attr, attr);
+            int count = this.count;
+            if (count > writer.cpInfo.data.length) {
+                writer.cpInfo.data = Arrays.copyOf(writer.cpInfo.data, count + (count >> 3));
+            }
+        }
+
+        private static void reserve(ByteArray array, int average) {
+            int size = average + (average >> 3);// headroom for classes larger than the average
+            if (size > array.data.length) {
+                array.data = Arrays.copyOf(array.data, size);
+            }
+        }
+
+        void learn(ClassFileWriter writer) {
+            head = average(head, writer.head.length);
+            body = average(body, writer.body.length);
+            meth = average(meth, writer.meth.length);
+            attr = average(attr, writer.attr.length);
+            count = average(count, writer.cpInfo.length);
+        }
+
+        /** Weight of a sample is 1/4, the first sample is taken as is. */
+        private static int average(int average, int sample) {
+            return average == 0 ? sample : average + ((sample - average) >> 2);
+        }
     }
 }
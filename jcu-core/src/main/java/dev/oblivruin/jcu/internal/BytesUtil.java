@@ -120,4 +120,25 @@ public final class BytesUtil {
                 bytes[off+6] == (byte) (v >>> 8) &&
                 bytes[off+7] == (byte)  v;
     }
+
+    /**
+     * Compare two ranges of bytes, 8 bytes per step.
+     *
+     * @return whether {@code a[aOff .. aOff + len)} equals {@code b[bOff .. bOff + len)}
+     */
+    @SameHead
+    public static boolean equals(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        int end = aOff + len;
+        for (int limit = end - 8; aOff <= limit; aOff+=8, bOff+=8) {
+            if (getLong(a, aOff) != getLong(b, bOff)) {
+                return false;
+            }
+        }
+        for (; aOff < end; ++aOff, ++bOff) {
+            if (a[aOff] != b[bOff]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
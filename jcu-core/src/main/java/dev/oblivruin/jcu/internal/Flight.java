@@ -0,0 +1,67 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.internal;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.builds.api.shadow.SameHead;
+import dev.oblivruin.jcu.builds.api.shadow.Shadow;
+
+/**
+ * Hooks of JDK Flight Recorder events, which have another version in JDK 11.
+ * <br>
+ * A {@code begin*} method returns the event, or {@code null} if there is nothing to record,
+ * and the matching {@code end*} method must be called with it after the operation.
+ *
+ * @author OblivRuinDev
+ */
+@Shadow
+public final class Flight {
+    @SameHead
+    private Flight() {}
+
+    @SameHead
+    public static Object beginRead() {
+        return null;
+    }
+
+    @SameHead
+    public static void endRead(Object event, ClassFileReader reader) {
+    }
+
+    @SameHead
+    public static Object beginAccept() {
+        return null;
+    }
+
+    @SameHead
+    public static void endAccept(Object event, ClassFileReader reader) {
+    }
+
+    @SameHead
+    public static Object beginWrite() {
+        return null;
+    }
+
+    /**
+     * @param thisClass {@code this_class} of the written class
+     * @param size the length of the class file
+     */
+    @SameHead
+    public static void endWrite(Object event, ClassFileWriter writer, int thisClass, int size) {
+    }
+}
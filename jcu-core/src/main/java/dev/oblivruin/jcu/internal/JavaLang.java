@@ -0,0 +1,49 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.internal;
+
+import dev.oblivruin.jcu.builds.api.shadow.SameHead;
+import dev.oblivruin.jcu.builds.api.shadow.Shadow;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * String coding by the standard Java API, which has another version in JDK 12 using {@code JavaLangAccess}.
+ *
+ * @author OblivRuinDev
+ */
+@Shadow
+public final class JavaLang {
+    @SameHead
+    private JavaLang() {}
+
+    /**
+     * Decode standard UTF-8, the bytes must be well-formed.
+     * <br>
+     * Modified UTF-8 is standard UTF-8 unless it has U+0000 or a supplementary char,
+     * which are encoded as {@code 0xC0 0x80} and surrogate pairs ({@code 0xED ...}).
+     *
+     * @param bytes the bytes
+     * @param off the start position
+     * @param len the length in bytes
+     * @return the string
+     */
+    @SameHead
+    public static String utf8(byte[] bytes, int off, int len) {
+        return new String(bytes, off, len, StandardCharsets.UTF_8);
+    }
+}
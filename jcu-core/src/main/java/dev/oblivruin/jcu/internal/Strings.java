@@ -20,6 +20,8 @@ import dev.oblivruin.jcu.builds.api.shadow.SameHead;
 import dev.oblivruin.jcu.builds.api.shadow.Shadow;
 import dev.oblivruin.jcu.misc.ByteArray;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Common implementation which using standard Java API, there are more efficient implementations
  * specifically tailored for JDK internal.
@@ -76,4 +78,65 @@ public final class Strings {
         array.length = 1 + pointer;
         return len;
     }
+
+    /**
+     * Compute the length of Modified UTF-8 without writing.
+     *
+     * @param value the string value
+     * @return the length in bytes, which is {@code long} as it may exceed {@link Integer#MAX_VALUE}
+     */
+    @SameHead
+    public static long utf8Length(String value) {
+        int len = value.length();
+        long count = len;
+        for (int index = 0; index < len; ++index) {
+            char c = value.charAt(index);
+            if (c >= 0x800) {
+                count+=2;
+            } else if (c >= 0x80 || c == 0) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Write Modified UTF-8 at {@code array.length}, with the length computed by {@link #utf8Length(String)},
+     * so the array is expanded once and exactly.
+     *
+     * @param value the string value to be written
+     * @param array the target byte array
+     * @param length the length of the Modified UTF-8
+     */
+    @SameHead
+    public static void write(String value, ByteArray array, int length) {
+        array.ensureFree(length);
+        byte[] data = array.data;
+        int pointer = array.length - 1;
+        for (int index = 0, len = value.length(); index < len; ++index) {
+            char c = value.charAt(index);
+            if (c >= 0x800) {
+                data[++pointer] = (byte) (0b1110_0000 | c >> 12 & 0b0000_1111);
+                data[++pointer] = (byte) (0b1000_0000 | c >> 6  & 0b0011_1111);
+                data[++pointer] = (byte) (0b1000_0000 | c       & 0b0011_1111);
+            } else if (c >= 0x80 || c == 0) {
+                data[++pointer] = (byte) (0b1100_0000 | c >> 6 & 0b0001_1111);
+                data[++pointer] = (byte) (0b1000_0000 | c      & 0b0011_1111);
+            } else {
+                data[++pointer] = (byte) c;
+            }
+        }
+        array.length = pointer + 1;
+    }
+
+    /**
+     * Create a string of Latin-1 chars.
+     *
+     * @param value the chars, may be owned by the string so must not be modified after
+     * @return the string
+     */
+    @SameHead
+    public static String newLatin1(byte[] value) {
+        return new String(value, StandardCharsets.ISO_8859_1);
+    }
 }
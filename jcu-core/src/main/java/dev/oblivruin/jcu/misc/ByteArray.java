@@ -16,6 +16,7 @@
 // limitations under the License.
 package dev.oblivruin.jcu.misc;
 
+import dev.oblivruin.jcu.builds.api.perf.AllocationBudget;
 import dev.oblivruin.jcu.internal.BytesUtil;
 import dev.oblivruin.jcu.internal.Strings;
 
@@ -94,6 +95,9 @@ public class ByteArray extends Array {
         int i = length + size;
         int o = data.length;
         if (i >= o) {
+            if (Metrics.ENABLED) {
+                grown(o);
+            }
             System.arraycopy(data, 0,
                     (data = new byte[newSize(i)]), 0,
                     o);
@@ -105,6 +109,9 @@ public class ByteArray extends Array {
         int i = length + size;
         int o = data.length;
         if (i >= o) {
+            if (Metrics.ENABLED) {
+                grown(o);
+            }
             System.arraycopy(data, 0,
                     (data = new byte[newSize(i)]), 0,
                     o);
@@ -118,24 +125,32 @@ public class ByteArray extends Array {
         return Math.max(expected, data.length * 2);
     }
 
+    private static void grown(int copied) {
+        Metrics.add(Metrics.BYTE_ARRAY_GROWS, 1);
+        Metrics.add(Metrics.BYTE_ARRAY_COPIED, copied);
+    }
+
     public final void put2(short value) {
         ensureFree(2);
         BytesUtil.setShort(this.data, this.length, value);
         this.length+=2;
     }
 
+    @AllocationBudget(0)
     public final void put2(int value) {
         ensureFree(2);
         BytesUtil.setUShort(this.data, this.length, value);
         this.length+=2;
     }
 
+    @AllocationBudget(0)
     public final void put4(int value) {
         ensureFree(4);
         BytesUtil.setInt(this.data, this.length, value);
         this.length+=4;
     }
 
+    @AllocationBudget(0)
     public final void put8(long value) {
         ensureFree(8);
         BytesUtil.setLong(this.data, this.length, value);
@@ -150,6 +165,7 @@ public class ByteArray extends Array {
         put8(Double.doubleToLongBits(value));
     }
 
+    @AllocationBudget(0)
     public final void put222(int v1, int v2, int v3) {
         ensureFree(6);
         int pointer = this.length;
@@ -160,6 +176,7 @@ public class ByteArray extends Array {
         this.length = pointer + 6;
     }
 
+    @AllocationBudget(0)
     public final void put24(int v1, int v2) {
         ensureFree(6);
         int pointer = this.length;
@@ -169,6 +186,7 @@ public class ByteArray extends Array {
         this.length = pointer + 6;
     }
 
+    @AllocationBudget(0)
     public final void put242(int v1, int v2, int v3) {
         ensureFree(8);
         int pointer = this.length;
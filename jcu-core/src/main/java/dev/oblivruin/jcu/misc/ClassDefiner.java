@@ -0,0 +1,153 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.misc;
+
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.builds.api.shadow.SameHead;
+import dev.oblivruin.jcu.builds.api.shadow.Shadow;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+
+/**
+ * Define classes from {@link ClassFileWriter}.
+ * <br>
+ * A shadow class, have another versions in JDK 9 ({@code Lookup.defineClass})
+ * and JDK 15 ({@code Lookup.defineHiddenClass}), which copy each class by {@link ClassFileWriter#toByteArray()}.
+ * <p>
+ * In JDK 1.8, classes are defined by {@code ClassLoader.defineClass} of the lookup class's loader,
+ * and only a batch of classes is written directly into one shared buffer,
+ * defining a single class still allocates an array of its size.
+ *
+ * @author OblivRuinDev
+ */
+@Shadow
+public final class ClassDefiner {
+    @SameHead
+    private ClassDefiner() {}
+
+    private static final Method defineClass;
+
+    static {
+        Method method;
+        try {
+            method = ClassLoader.class.getDeclaredMethod("defineClass",
+                    String.class, byte[].class, int.class, int.class, ProtectionDomain.class);
+            method.setAccessible(true);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            method = null;
+        }
+        defineClass = method;
+    }
+
+    /**
+     * Define a class in the same runtime package as the lookup class.
+     *
+     * @param lookup a lookup with {@code PACKAGE} access
+     * @param writer the writer of the class, {@link ClassFileWriter#visitEnd()} must have been called
+     * @return the defined class
+     */
+    @SameHead
+    public static Class<?> define(MethodHandles.Lookup lookup, ClassFileWriter writer) {
+        return define(lookup, new ClassFileWriter[]{writer})[0];
+    }
+
+    /**
+     * Define a batch of classes in the same runtime package as the lookup class, in the given order.
+     *
+     * @param lookup a lookup with {@code PACKAGE} access
+     * @param writers the writers of the classes, {@link ClassFileWriter#visitEnd()} must have been called
+     * @return the defined classes
+     */
+    @SameHead
+    public static Class<?>[] define(MethodHandles.Lookup lookup, ClassFileWriter... writers) {
+        if ((lookup.lookupModes() & MethodHandles.Lookup.PACKAGE) == 0) {
+            throw new IllegalAccessError("Lookup requires PACKAGE access: " + lookup);
+        }
+        if (defineClass == null) {
+            throw new UnsupportedOperationException("ClassLoader.defineClass is inaccessible");
+        }
+        Class<?> host = lookup.lookupClass();
+        ClassLoader loader = host.getClassLoader();
+        if (loader == null) {
+            throw new IllegalArgumentException("Lookup class is defined by the bootstrap loader: " + host.getName());
+        }
+        ProtectionDomain domain = host.getProtectionDomain();
+        String hostName = host.getName();
+        int hostPackage = hostName.lastIndexOf('.');
+        int max = 0;
+        for (ClassFileWriter writer : writers) {
+            String name = writer.utf8V(writer.ref1Index(writer.thisClass()));
+            int split = name.lastIndexOf('/');
+            if (split != hostPackage || !hostName.regionMatches(0, name.replace('/', '.'), 0, split)) {
+                throw new IllegalArgumentException(name.replace('/', '.') + " not in same package as lookup class");
+            }
+            max = Math.max(max, writer.size());
+        }
+        byte[] buffer = new byte[max];
+        Class<?>[] ret = new Class<?>[writers.length];
+        try {
+            for (int index = 0; index < writers.length; ++index) {
+                int len = writers[index].writeTo(buffer, 0);
+                ret[index] = (Class<?>) defineClass.invoke(loader, null, buffer, 0, len, domain);
+            }
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return ret;
+    }
+
+    /**
+     * Define a hidden class, requires JDK 15.
+     *
+     * @param lookup a lookup with full privilege access
+     * @param writer the writer of the class, {@link ClassFileWriter#visitEnd()} must have been called
+     * @param initialize whether to initialize the class
+     * @param nestmate whether the hidden class is a nestmate of the lookup class
+     * @return a lookup on the hidden class with full privilege access
+     * @throws UnsupportedOperationException if JDK version is lower than 15
+     */
+    @SameHead
+    public static MethodHandles.Lookup defineHidden(MethodHandles.Lookup lookup, ClassFileWriter writer,
+                                                    boolean initialize, boolean nestmate) {
+        throw new UnsupportedOperationException("Hidden class requires JDK 15");
+    }
+
+    /**
+     * Define a batch of hidden classes in the given order, requires JDK 15.
+     *
+     * @param lookup a lookup with full privilege access
+     * @param initialize whether to initialize the classes
+     * @param nestmate whether the hidden classes are nestmates of the lookup class
+     * @param writers the writers of the classes, {@link ClassFileWriter#visitEnd()} must have been called
+     * @return lookups on the hidden classes with full privilege access
+     * @throws UnsupportedOperationException if JDK version is lower than 15
+     */
+    @SameHead
+    public static MethodHandles.Lookup[] defineHidden(MethodHandles.Lookup lookup, boolean initialize,
+                                                      boolean nestmate, ClassFileWriter... writers) {
+        throw new UnsupportedOperationException("Hidden class requires JDK 15");
+    }
+}
@@ -48,6 +48,9 @@ public class IntArray extends Array {
     public final void ensureFree(int size) {
         int i = length + size;
         if (i >= data.length) {
+            if (Metrics.ENABLED) {
+                grown(length);
+            }
             System.arraycopy(data, 0,
                     (data = new int[newSize(i)]), 0,
                     length);
@@ -58,6 +61,9 @@ public class IntArray extends Array {
     public final boolean tryExpand(int size) {
         int i = length + size;
         if (i >= data.length) {
+            if (Metrics.ENABLED) {
+                grown(length);
+            }
             System.arraycopy(data, 0,
                     (data = new int[newSize(i)]), 0,
                     length);
@@ -70,4 +76,9 @@ public class IntArray extends Array {
     protected int newSize(int expected) {
         return Math.max(expected, data.length * 2);
     }
+
+    private static void grown(int copied) {
+        Metrics.add(Metrics.INT_ARRAY_GROWS, 1);
+        Metrics.add(Metrics.INT_ARRAY_COPIED, copied);
+    }
 }
@@ -24,8 +24,28 @@ public final class Internal {
     private Internal() {
     }
 
+    /** The system property to force a backend of {@code BytesUtil}, see {@link #bytesBackend()}. */
+    @SameHead
+    public static final String BYTES_BACKEND = "dev.oblivruin.jcu.bytes";
+
     @SameHead
     public static void loadFastC() {
         //nothing to do in JDK1.8
     }
+
+    /**
+     * Report the active implementation of {@code BytesUtil}, which is one of:
+     * <ul>
+     *     <li>{@code portable}: shifts of single bytes, the only one in JDK 1.8</li>
+     *     <li>{@code varhandle}: {@link java.lang.invoke.MethodHandles#byteArrayViewVarHandle}, the default in JDK 9+</li>
+     *     <li>{@code unsafe}: {@code jdk.internal.misc.Unsafe}, loaded by {@link #loadFastC()}</li>
+     * </ul>
+     * Once reported, the implementation can not be changed anymore.
+     *
+     * @return the name of the backend
+     */
+    @SameHead
+    public static String bytesBackend() {
+        return "portable";
+    }
 }
@@ -0,0 +1,119 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.misc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional counters of the work done by readers, writers and arrays, used to size buffers and spot pathological classes.
+ * <br>
+ * Collection is enabled by the system property {@code dev.oblivruin.jcu.metrics=true}, which is read once.
+ * Every call site is guarded by {@link #ENABLED}, so when disabled the JIT compiler removes it entirely.
+ * Counters are {@link LongAdder}s, which are striped across threads.
+ * <pre>{@code
+ * if (Metrics.ENABLED) {
+ *     Metrics.add(Metrics.BYTES_READ, bytes.length);
+ * }
+ * }</pre>
+ *
+ * @author OblivRuinDev
+ */
+public final class Metrics {
+    private Metrics() {}
+
+    /** Whether counters are collected, must be checked before calling {@link #add(int, long)}. */
+    public static final boolean ENABLED = Boolean.getBoolean("dev.oblivruin.jcu.metrics");
+
+    /** Count of constructed {@link dev.oblivruin.jcu.ClassFileReader}s. */
+    public static final int CLASSES_READ = 0;
+    /** Bytes of class files given to {@link dev.oblivruin.jcu.ClassFileReader}s. */
+    public static final int BYTES_READ = 1;
+    /** {@code CONSTANT_Utf8_info} entries decoded into {@link String}s by readers. */
+    public static final int UTF8_DECODED = 2;
+    /** {@code CONSTANT_Utf8_info} entries served from the cache of readers. */
+    public static final int UTF8_CACHE_HITS = 3;
+    /** Constants created by {@link dev.oblivruin.jcu.ClassFileWriter}s. */
+    public static final int CONSTANTS_CREATED = 4;
+    /** Constants found by {@link dev.oblivruin.jcu.ClassFileWriter}s instead of being created again. */
+    public static final int CONSTANTS_DEDUPLICATED = 5;
+    /** Count of class files written by {@link dev.oblivruin.jcu.ClassFileWriter}s. */
+    public static final int CLASSES_WRITTEN = 6;
+    /** Bytes of class files written by {@link dev.oblivruin.jcu.ClassFileWriter}s. */
+    public static final int BYTES_WRITTEN = 7;
+    /** Count of {@link ByteArray} growth. */
+    public static final int BYTE_ARRAY_GROWS = 8;
+    /** Bytes copied by {@link ByteArray} growth. */
+    public static final int BYTE_ARRAY_COPIED = 9;
+    /** Count of {@link IntArray} growth. */
+    public static final int INT_ARRAY_GROWS = 10;
+    /** Elements copied by {@link IntArray} growth. */
+    public static final int INT_ARRAY_COPIED = 11;
+
+    private static final String[] NAMES = {
+            "ClassesRead", "BytesRead", "Utf8Decoded", "Utf8CacheHits",
+            "ConstantsCreated", "ConstantsDeduplicated", "ClassesWritten", "BytesWritten",
+            "ByteArrayGrows", "ByteArrayCopied", "IntArrayGrows", "IntArrayCopied"
+    };
+
+    private static final LongAdder[] COUNTERS = new LongAdder[NAMES.length];
+
+    static {
+        for (int index = 0; index < COUNTERS.length; ++index) {
+            COUNTERS[index] = new LongAdder();
+        }
+    }
+
+    /** @return count of counters, which are numbered from 0 */
+    public static int count() {
+        return COUNTERS.length;
+    }
+
+    /**
+     * @param counter the counter, e.g. {@link #BYTES_READ}
+     * @return the name of the counter, e.g. {@code BytesRead}
+     */
+    public static String name(int counter) {
+        return NAMES[counter];
+    }
+
+    /**
+     * Add to a counter.
+     * <p>
+     * <b>Contract:</b> Only called when {@link #ENABLED} is {@code true}.
+     *
+     * @param counter the counter, e.g. {@link #BYTES_READ}
+     * @param value the value to add
+     */
+    public static void add(int counter, long value) {
+        COUNTERS[counter].add(value);
+    }
+
+    /**
+     * @param counter the counter, e.g. {@link #BYTES_READ}
+     * @return the current value, not an atomic snapshot across counters
+     */
+    public static long get(int counter) {
+        return COUNTERS[counter].sum();
+    }
+
+    /** Reset all counters to 0. */
+    public static void reset() {
+        for (LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+    }
+}
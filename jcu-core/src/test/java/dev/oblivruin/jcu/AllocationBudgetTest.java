@@ -0,0 +1,94 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu;
+
+import dev.oblivruin.jcu.constant.Tag;
+import dev.oblivruin.jcu.misc.ByteArray;
+import dev.oblivruin.jcu.test.AllocationHarness;
+import dev.oblivruin.jcu.test.BytesHelper;
+import dev.oblivruin.jcu.test.NoopVisitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks hot paths of jcu-core against their {@code @AllocationBudget}.
+ */
+public class AllocationBudgetTest {
+    @ParameterizedTest
+    @ArgumentsSource(BytesHelper.ALL.class)
+    public void accept(byte[] bytes) {
+        ClassFileReader reader = new ClassFileReader(bytes);
+        NoopVisitor visitor = new NoopVisitor();
+        AllocationHarness.check(ClassFileReader.class, "accept", "(Ldev/oblivruin/jcu/IRawClassVisitor;)V",
+                () -> reader.accept(visitor));
+    }
+
+    @Test
+    public void byteArray() {
+        ByteArray array = new ByteArray(64);
+        AllocationHarness.check(ByteArray.class, "put2", "(I)V", () -> {
+            array.length = 0;
+            array.put2(0xCAFE);
+        });
+        AllocationHarness.check(ByteArray.class, "put4", "(I)V", () -> {
+            array.length = 0;
+            array.put4(0xCAFEBABE);
+        });
+        AllocationHarness.check(ByteArray.class, "put8", "(J)V", () -> {
+            array.length = 0;
+            array.put8(0xCAFEBABEL);
+        });
+        AllocationHarness.check(ByteArray.class, "put222", "(III)V", () -> {
+            array.length = 0;
+            array.put222(1, 2, 3);
+        });
+        AllocationHarness.check(ByteArray.class, "put24", "(II)V", () -> {
+            array.length = 0;
+            array.put24(1, 2);
+        });
+        AllocationHarness.check(ByteArray.class, "put242", "(III)V", () -> {
+            array.length = 0;
+            array.put242(1, 2, 3);
+        });
+    }
+
+    /**
+     * Looks up existing constants, which is the common case when a class is rewritten.
+     */
+    @Test
+    public void findConstants() {
+        ClassFileWriter writer = new ClassFileWriter();
+        new ClassFileReader(BytesHelper.j8ObjBytes).copyCPTo(writer);
+        String utf8 = "java/lang/Object";
+        int name = writer.findUtf8(utf8);
+        writer.findInt(0x7FFFFFFF);
+        writer.findLong(0x7FFFFFFFFFFFFFFFL);
+        int ref1 = writer.findRef1(Tag.Class, name);
+        int method = writer.findRef2(Tag.Methodref, ref1, writer.findRef2(Tag.NameAndType, name, name));
+        writer.findMethodHandle(6, method);
+        int count = writer.count();
+        AllocationHarness.check(ClassFileWriter.class, "findUtf8", "(Ljava/lang/String;)I", () -> writer.findUtf8(utf8));
+        AllocationHarness.check(ClassFileWriter.class, "findC5", "(II)I", () -> writer.findInt(0x7FFFFFFF));
+        AllocationHarness.check(ClassFileWriter.class, "findC9", "(IJ)I", () -> writer.findLong(0x7FFFFFFFFFFFFFFFL));
+        AllocationHarness.check(ClassFileWriter.class, "findRef1", "(II)I", () -> writer.findRef1(Tag.Class, name));
+        AllocationHarness.check(ClassFileWriter.class, "findMethodHandle", "(II)I", () -> writer.findMethodHandle(6, method));
+        assertEquals(count, writer.count(), "Constants are created while checking");
+    }
+}
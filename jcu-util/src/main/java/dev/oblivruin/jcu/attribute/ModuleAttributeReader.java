@@ -0,0 +1,275 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.attribute;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.util.AttributeKinds;
+
+/**
+ * A flyweight reader of the {@code Module} attribute, all values are constant indexes or flags.
+ * <br>
+ * {@code requires} and {@code uses} tables have fixed-size entries and are accessed by entry index.
+ * {@code exports}, {@code opens} and {@code provides} tables have variable-size entries,
+ * they are accessed by the position of entry:
+ * <pre>{@code
+ * for (int i = 0, pos = reader.firstExports(); i < reader.exportsCount(); ++i, pos = reader.next(pos)) {
+ *     int packageIndex = reader.index(pos);
+ *     for (int j = 0; j < reader.toCount(pos); ++j) {
+ *         int moduleIndex = reader.toIndex(pos, j);
+ *     }
+ * }
+ * }</pre>
+ * <p>Module attribute:</p>
+ * <pre>{@code Module_attribute {
+ *     u2 attribute_name_index;
+ *     u4 attribute_length;
+ *     u2 module_name_index;
+ *     u2 module_flags;
+ *     u2 module_version_index;
+ *     u2 requires_count;
+ *     {   u2 requires_index;
+ *         u2 requires_flags;
+ *         u2 requires_version_index;
+ *     } requires[requires_count];
+ *     u2 exports_count;
+ *     {   u2 exports_index;
+ *         u2 exports_flags;
+ *         u2 exports_to_count;
+ *         u2 exports_to_index[exports_to_count];
+ *     } exports[exports_count];
+ *     u2 opens_count;
+ *     {   u2 opens_index;
+ *         u2 opens_flags;
+ *         u2 opens_to_count;
+ *         u2 opens_to_index[opens_to_count];
+ *     } opens[opens_count];
+ *     u2 uses_count;
+ *     u2 uses_index[uses_count];
+ *     u2 provides_count;
+ *     {   u2 provides_index;
+ *         u2 provides_with_count;
+ *         u2 provides_with_index[provides_with_count];
+ *     } provides[provides_count];
+ * }}</pre>
+ *
+ * @see ModuleAttributeWriter
+ * @author OblivRuinDev
+ */
+public final class ModuleAttributeReader {
+    /**
+     * Class file bytes.
+     * <br>
+     * <b>DO NOT CHANGE ELEMENTS IN THIS ARRAY OR UNEXPECTED BEHAVIOR MAY OCCUR!!!</b>
+     */
+    public final byte[] bytes;
+    /** The position of {@code module_name_index}. */
+    public final int off;
+    /** Positions of {@code xxx_count}. */
+    private final int exports, opens, uses, provides, end;
+
+    /**
+     * @param bytes class file bytes
+     * @param off the position of {@code module_name_index}
+     */
+    public ModuleAttributeReader(byte[] bytes, int off) {
+        this.bytes = bytes;
+        this.off = off;
+        int pos = off + 6;
+        pos+=(2 + BytesUtil.getUShort(bytes, pos)*6);
+        this.exports = pos;
+        pos = skip(bytes, pos);
+        this.opens = pos;
+        pos = skip(bytes, pos);
+        this.uses = pos;
+        pos+=(2 + BytesUtil.getUShort(bytes, pos)*2);
+        this.provides = pos;
+        int count = BytesUtil.getUShort(bytes, pos);
+        for (pos+=2; count > 0; --count) {
+            pos+=(4 + BytesUtil.getUShort(bytes, pos + 2)*2);
+        }
+        this.end = pos;
+    }
+
+    private static int skip(byte[] bytes, int pos) {
+        int count = BytesUtil.getUShort(bytes, pos);
+        for (pos+=2; count > 0; --count) {
+            pos+=(6 + BytesUtil.getUShort(bytes, pos + 4)*2);
+        }
+        return pos;
+    }
+
+    /**
+     * Find the {@code Module} attribute of a class file.
+     *
+     * @param reader the class file reader
+     * @return the reader of the attribute, or {@code null} if absent
+     */
+    public static ModuleAttributeReader of(ClassFileReader reader) {
+        int off = AttributeKinds.findClassAttribute(reader, AttributeKinds.Module);
+        return off < 0 ? null : new ModuleAttributeReader(reader.bytes(), off + 6);
+    }
+
+    private int u2(int pos) {
+        return BytesUtil.getUShort(bytes, pos);
+    }
+
+    /** @return {@code module_name_index}, a {@code CONSTANT_Module_info} */
+    public int nameIndex() {
+        return u2(off);
+    }
+
+    /** @return {@code module_flags} */
+    public int flags() {
+        return u2(off + 2);
+    }
+
+    /** @return {@code module_version_index}, a {@code CONSTANT_Utf8_info} or 0 */
+    public int versionIndex() {
+        return u2(off + 4);
+    }
+
+    /** @return {@code requires_count} */
+    public int requiresCount() {
+        return u2(off + 6);
+    }
+
+    /** @return {@code requires_index} of the i-th entry, a {@code CONSTANT_Module_info} */
+    public int requiresIndex(int i) {
+        return u2(off + 8 + i*6);
+    }
+
+    /** @return {@code requires_flags} of the i-th entry */
+    public int requiresFlags(int i) {
+        return u2(off + 10 + i*6);
+    }
+
+    /** @return {@code requires_version_index} of the i-th entry, a {@code CONSTANT_Utf8_info} or 0 */
+    public int requiresVersionIndex(int i) {
+        return u2(off + 12 + i*6);
+    }
+
+    /** @return {@code exports_count} */
+    public int exportsCount() {
+        return u2(exports);
+    }
+
+    /** @return the position of the first {@code exports} entry */
+    public int firstExports() {
+        return exports + 2;
+    }
+
+    /** @return {@code opens_count} */
+    public int opensCount() {
+        return u2(opens);
+    }
+
+    /** @return the position of the first {@code opens} entry */
+    public int firstOpens() {
+        return opens + 2;
+    }
+
+    /**
+     * @param pos the position of an {@code exports} or {@code opens} entry
+     * @return the position of the next entry
+     */
+    public int next(int pos) {
+        return pos + 6 + u2(pos + 4)*2;
+    }
+
+    /**
+     * @param pos the position of an {@code exports}, {@code opens} or {@code provides} entry
+     * @return {@code exports_index} or {@code opens_index}, a {@code CONSTANT_Package_info};
+     * or {@code provides_index}, a {@code CONSTANT_Class_info}
+     */
+    public int index(int pos) {
+        return u2(pos);
+    }
+
+    /**
+     * @param pos the position of an {@code exports} or {@code opens} entry
+     * @return {@code exports_flags} or {@code opens_flags}
+     */
+    public int flags(int pos) {
+        return u2(pos + 2);
+    }
+
+    /**
+     * @param pos the position of an {@code exports} or {@code opens} entry
+     * @return {@code exports_to_count} or {@code opens_to_count}
+     */
+    public int toCount(int pos) {
+        return u2(pos + 4);
+    }
+
+    /**
+     * @param pos the position of an {@code exports} or {@code opens} entry
+     * @return the i-th {@code exports_to_index} or {@code opens_to_index}, a {@code CONSTANT_Module_info}
+     */
+    public int toIndex(int pos, int i) {
+        return u2(pos + 6 + i*2);
+    }
+
+    /** @return {@code uses_count} */
+    public int usesCount() {
+        return u2(uses);
+    }
+
+    /** @return the i-th {@code uses_index}, a {@code CONSTANT_Class_info} */
+    public int usesIndex(int i) {
+        return u2(uses + 2 + i*2);
+    }
+
+    /** @return {@code provides_count} */
+    public int providesCount() {
+        return u2(provides);
+    }
+
+    /** @return the position of the first {@code provides} entry */
+    public int firstProvides() {
+        return provides + 2;
+    }
+
+    /**
+     * @param pos the position of a {@code provides} entry
+     * @return the position of the next entry
+     */
+    public int nextProvides(int pos) {
+        return pos + 4 + u2(pos + 2)*2;
+    }
+
+    /**
+     * @param pos the position of a {@code provides} entry
+     * @return {@code provides_with_count}
+     */
+    public int withCount(int pos) {
+        return u2(pos + 2);
+    }
+
+    /**
+     * @param pos the position of a {@code provides} entry
+     * @return the i-th {@code provides_with_index}, a {@code CONSTANT_Class_info}
+     */
+    public int withIndex(int pos, int i) {
+        return u2(pos + 4 + i*2);
+    }
+
+    /** @return the end position of the attribute */
+    public int end() {
+        return end;
+    }
+}
@@ -0,0 +1,228 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.attribute;
+
+import dev.oblivruin.jcu.AttributeWriter;
+import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.misc.ByteArray;
+
+/**
+ * A builder of the {@code Module} attribute content, all values are constant indexes or flags.
+ * <br>
+ * Tables must be written in the order of the attribute:
+ * {@code requires}, {@code exports}, {@code opens}, {@code uses}, {@code provides},
+ * skipped tables are empty. Counts are updated in place, so nothing is buffered.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * ModuleAttributeWriter writer = new ModuleAttributeWriter(attrs.visitAttribute(moduleNameIndex),
+ *         nameIndex, flags, versionIndex);
+ * writer.requires(javaBaseIndex, AccessFlag.ACC_MANDATED, 0);
+ * writer.exports(packageIndex, 0);
+ * writer.to(friendModuleIndex);
+ * writer.visitEnd();
+ * }</pre>
+ *
+ * @see ModuleAttributeReader
+ * @author OblivRuinDev
+ */
+public final class ModuleAttributeWriter {
+    private static final int REQUIRES = 0, EXPORTS = 1, OPENS = 2, USES = 3, PROVIDES = 4;
+
+    private final AttributeWriter writer;
+    private final ByteArray array;
+    /** Positions of {@code xxx_count} of current table and the last variable-size entry. */
+    private int table = REQUIRES, countOff, listOff = -1;
+
+    /**
+     * Write the header of the attribute.
+     *
+     * @param writer the writer returned by {@link dev.oblivruin.jcu.AttrContainer#visitAttribute(int)}
+     * @param nameIndex {@code module_name_index}, a {@code CONSTANT_Module_info}
+     * @param flags {@code module_flags}
+     * @param versionIndex {@code module_version_index}, a {@code CONSTANT_Utf8_info} or 0
+     */
+    public ModuleAttributeWriter(AttributeWriter writer, int nameIndex, int flags, int versionIndex) {
+        this.writer = writer;
+        ByteArray array = this.array = writer.array;
+        array.put222(nameIndex, flags, versionIndex);
+        countOff = array.length;
+        array.put2(0);
+    }
+
+    private void enter(int table) {
+        if (table < this.table) {
+            throw new IllegalStateException("Table must be written in order");
+        }
+        ByteArray array = this.array;
+        while (this.table < table) {
+            ++this.table;
+            countOff = array.length;
+            array.put2(0);
+            listOff = -1;
+        }
+        byte[] data = array.data;
+        BytesUtil.setUShort(data, countOff, BytesUtil.getUShort(data, countOff) + 1);
+    }
+
+    /**
+     * Add a {@code requires} entry.
+     *
+     * @param index {@code requires_index}, a {@code CONSTANT_Module_info}
+     * @param flags {@code requires_flags}
+     * @param versionIndex {@code requires_version_index}, a {@code CONSTANT_Utf8_info} or 0
+     */
+    public void requires(int index, int flags, int versionIndex) {
+        enter(REQUIRES);
+        array.put222(index, flags, versionIndex);
+    }
+
+    /**
+     * Add an {@code exports} entry, followed by {@link #to(int)} for a qualified export.
+     *
+     * @param index {@code exports_index}, a {@code CONSTANT_Package_info}
+     * @param flags {@code exports_flags}
+     */
+    public void exports(int index, int flags) {
+        enter(EXPORTS);
+        entry(index, flags);
+    }
+
+    /**
+     * Add an {@code exports} entry with targets.
+     *
+     * @param index {@code exports_index}, a {@code CONSTANT_Package_info}
+     * @param flags {@code exports_flags}
+     * @param to {@code exports_to_index}, each is a {@code CONSTANT_Module_info}
+     */
+    public void exports(int index, int flags, int... to) {
+        exports(index, flags);
+        list(to);
+    }
+
+    /**
+     * Add an {@code opens} entry, followed by {@link #to(int)} for a qualified open.
+     *
+     * @param index {@code opens_index}, a {@code CONSTANT_Package_info}
+     * @param flags {@code opens_flags}
+     */
+    public void opens(int index, int flags) {
+        enter(OPENS);
+        entry(index, flags);
+    }
+
+    /**
+     * Add an {@code opens} entry with targets.
+     *
+     * @param index {@code opens_index}, a {@code CONSTANT_Package_info}
+     * @param flags {@code opens_flags}
+     * @param to {@code opens_to_index}, each is a {@code CONSTANT_Module_info}
+     */
+    public void opens(int index, int flags, int... to) {
+        opens(index, flags);
+        list(to);
+    }
+
+    private void entry(int index, int flags) {
+        array.put222(index, flags, 0);
+        listOff = array.length - 2;
+    }
+
+    /**
+     * Add a target module to the last {@code exports} or {@code opens} entry.
+     *
+     * @param index a {@code CONSTANT_Module_info}
+     */
+    public void to(int index) {
+        if (listOff < 0 || (table != EXPORTS && table != OPENS)) {
+            throw new IllegalStateException("No exports or opens entry");
+        }
+        append(index);
+    }
+
+    /**
+     * Add a {@code uses_index}.
+     *
+     * @param index a {@code CONSTANT_Class_info}
+     */
+    public void uses(int index) {
+        enter(USES);
+        array.put2(index);
+    }
+
+    /**
+     * Add a {@code provides} entry, followed by {@link #with(int)}.
+     *
+     * @param index {@code provides_index}, a {@code CONSTANT_Class_info}
+     */
+    public void provides(int index) {
+        enter(PROVIDES);
+        array.put2(index);
+        listOff = array.length;
+        array.put2(0);
+    }
+
+    /**
+     * Add a {@code provides} entry with implementations.
+     *
+     * @param index {@code provides_index}, a {@code CONSTANT_Class_info}
+     * @param with {@code provides_with_index}, each is a {@code CONSTANT_Class_info}
+     */
+    public void provides(int index, int... with) {
+        provides(index);
+        list(with);
+    }
+
+    /**
+     * Add an implementation to the last {@code provides} entry.
+     *
+     * @param index a {@code CONSTANT_Class_info}
+     */
+    public void with(int index) {
+        if (listOff < 0 || table != PROVIDES) {
+            throw new IllegalStateException("No provides entry");
+        }
+        append(index);
+    }
+
+    private void list(int[] indexes) {
+        for (int index : indexes) {
+            append(index);
+        }
+    }
+
+    private void append(int index) {
+        ByteArray array = this.array;
+        array.put2(index);
+        byte[] data = array.data;
+        BytesUtil.setUShort(data, listOff, BytesUtil.getUShort(data, listOff) + 1);
+    }
+
+    /**
+     * Write empty tables which are not written and finish the attribute.
+     * <p>
+     * <b>Contract:</b> Must be called exactly once after all write operations.
+     */
+    public void visitEnd() {
+        ByteArray array = this.array;
+        while (table < PROVIDES) {
+            ++table;
+            array.put2(0);
+        }
+        writer.visitEnd();
+    }
+}
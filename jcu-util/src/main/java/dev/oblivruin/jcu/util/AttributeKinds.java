@@ -0,0 +1,193 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.constant.AttributeNames;
+import dev.oblivruin.jcu.constant.Tag;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Enumerate kinds of predefined attribute, and classify {@code CONSTANT_Utf8_info}
+ * entries by their raw bytes, so that attributes can be dispatched by name index
+ * without decoding any string.
+ *
+ * @see AttributeNames
+ * @author OblivRuinDev
+ */
+public final class AttributeKinds {
+    private AttributeKinds() {}
+
+    /** Not a predefined attribute name. */
+    public static final int UNKNOWN = 0;
+    public static final int ConstantValue = 1;
+    public static final int Code = 2;
+    public static final int StackMapTable = 3;
+    public static final int BootstrapMethods = 4;
+    public static final int NestHost = 5;
+    public static final int NestMembers = 6;
+    public static final int PermittedSubclasses = 7;
+    public static final int Exceptions = 8;
+    public static final int InnerClasses = 9;
+    public static final int EnclosingMethod = 10;
+    public static final int Synthetic = 11;
+    public static final int Signature = 12;
+    public static final int Record = 13;
+    public static final int SourceFile = 14;
+    public static final int LineNumberTable = 15;
+    public static final int LocalVariableTable = 16;
+    public static final int LocalVariableTypeTable = 17;
+    public static final int SourceDebugExtension = 18;
+    public static final int Deprecated = 19;
+    public static final int RuntimeVisibleAnnotations = 20;
+    public static final int RuntimeInvisibleAnnotations = 21;
+    public static final int RuntimeVisibleParameterAnnotations = 22;
+    public static final int RuntimeInvisibleParameterAnnotations = 23;
+    public static final int RuntimeVisibleTypeAnnotations = 24;
+    public static final int RuntimeInvisibleTypeAnnotations = 25;
+    public static final int AnnotationDefault = 26;
+    public static final int MethodParameters = 27;
+    public static final int Module = 28;
+    public static final int ModulePackages = 29;
+    public static final int ModuleMainClass = 30;
+    public static final int ModuleTarget = 31;
+
+    private static final byte[][] NAMES = of(
+            null,
+            AttributeNames.ConstantValue,
+            AttributeNames.Code,
+            AttributeNames.StackMapTable,
+            AttributeNames.BootstrapMethods,
+            AttributeNames.NestHost,
+            AttributeNames.NestMembers,
+            AttributeNames.PermittedSubclasses,
+            AttributeNames.Exceptions,
+            AttributeNames.InnerClasses,
+            AttributeNames.EnclosingMethod,
+            AttributeNames.Synthetic,
+            AttributeNames.Signature,
+            AttributeNames.Record,
+            AttributeNames.SourceFile,
+            AttributeNames.LineNumberTable,
+            AttributeNames.LocalVariableTable,
+            AttributeNames.LocalVariableTypeTable,
+            AttributeNames.SourceDebugExtension,
+            AttributeNames.Deprecated,
+            AttributeNames.RuntimeVisibleAnnotations,
+            AttributeNames.RuntimeInvisibleAnnotations,
+            AttributeNames.RuntimeVisibleParameterAnnotations,
+            AttributeNames.RuntimeInvisibleParameterAnnotations,
+            AttributeNames.RuntimeVisibleTypeAnnotations,
+            AttributeNames.RuntimeInvisibleTypeAnnotations,
+            AttributeNames.AnnotationDefault,
+            AttributeNames.MethodParameters,
+            AttributeNames.Module,
+            AttributeNames.ModulePackages,
+            AttributeNames.ModuleMainClass,
+            AttributeNames.ModuleTarget);
+
+    private static byte[][] of(String... names) {
+        byte[][] ret = new byte[names.length][];
+        for (int index = 1; index < names.length; ++index) {
+            ret[index] = names[index].getBytes(StandardCharsets.ISO_8859_1);
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the name of given kind.
+     *
+     * @param kind the attribute kind
+     * @return the attribute name, or {@code null} if kind is {@link #UNKNOWN}
+     */
+    public static String toString(int kind) {
+        return kind == UNKNOWN ? null : new String(NAMES[kind], StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Classify the modified UTF-8 bytes within given range.
+     *
+     * @param bytes source array
+     * @param off starting position in {@code bytes}
+     * @param len the number of bytes
+     * @return the attribute kind, or {@link #UNKNOWN} if no predefined name matches
+     */
+    public static int kindOf(byte[] bytes, int off, int len) {
+        byte[][] names = NAMES;
+        lab:for (int kind = 1; kind < names.length; ++kind) {
+            byte[] name = names[kind];
+            if (name.length != len) {
+                continue;
+            }
+            for (int index = 0; index < len; ++index) {
+                if (name[index] != bytes[off + index]) {
+                    continue lab;
+                }
+            }
+            return kind;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Classify every {@code CONSTANT_Utf8_info} entry in the constant pool of given reader.
+     *
+     * @param reader the class file reader
+     * @return attribute kinds indexed by constant index, entries which are not
+     * {@code CONSTANT_Utf8_info} are always {@link #UNKNOWN}
+     */
+    public static byte[] resolve(ClassFileReader reader) {
+        byte[] bytes = reader.bytes();
+        int count = reader.count();
+        byte[] kinds = new byte[count];
+        for (int index = 1; index < count; ++index) {
+            int off = reader.offset(index);
+            switch (bytes[off]) {
+                case Tag.Utf8:
+                    kinds[index] = (byte) kindOf(bytes, off + 3, reader.readU2(off + 1));
+                    break;
+                case Tag.Long:
+                case Tag.Double:
+                    ++index;
+                    break;
+            }
+        }
+        return kinds;
+    }
+
+    /**
+     * Find an attribute of the class (not of a field or method) by kind.
+     *
+     * @param reader the class file reader
+     * @param kind the attribute kind
+     * @return the position of {@code attribute_name_index} of the first such attribute, or -1 if absent
+     */
+    public static int findClassAttribute(ClassFileReader reader, int kind) {
+        byte[] bytes = reader.bytes();
+        int off = reader.attributePos();
+        int count = reader.readU2(off);
+        for (off+=2; count > 0; --count) {
+            int name = reader.offset(reader.readU2(off));
+            if (bytes[name] == Tag.Utf8 && kindOf(bytes, name + 3, reader.readU2(name + 1)) == kind) {
+                return off;
+            }
+            off+=(6 + reader.readInt(off + 2));
+        }
+        return -1;
+    }
+}
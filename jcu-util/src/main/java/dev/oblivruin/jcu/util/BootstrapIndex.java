@@ -0,0 +1,153 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.constant.Tag;
+
+/**
+ * An index from {@code CONSTANT_InvokeDynamic_info} and {@code CONSTANT_Dynamic_info}
+ * entries to their entries in the {@code BootstrapMethods} attribute, built with a single pass.
+ * <br>
+ * Bootstrap method entries are addressed by position, all values are constant indexes,
+ * so a bootstrap method can be recognised by comparing indexes with those from
+ * {@link ClassFileReader#findUtf8(String)}:
+ * <pre>{@code
+ * int lmf = reader.findUtf8("java/lang/invoke/LambdaMetafactory");
+ * int pos = index.entry(invokedynamicIndex);
+ * boolean lambda = pos >= 0 && index.ownerIndex(pos) == lmf;
+ * }</pre>
+ * <p>BootstrapMethods attribute:</p>
+ * <pre>{@code BootstrapMethods_attribute {
+ *     u2 attribute_name_index;
+ *     u4 attribute_length;
+ *     u2 num_bootstrap_methods;
+ *     {   u2 bootstrap_method_ref;
+ *         u2 num_bootstrap_arguments;
+ *         u2 bootstrap_arguments[num_bootstrap_arguments];
+ *     } bootstrap_methods[num_bootstrap_methods];
+ * }}</pre>
+ *
+ * @author OblivRuinDev
+ */
+public final class BootstrapIndex {
+    private final ClassFileReader reader;
+    /** Positions of {@code bootstrap_methods} entries. */
+    private final int[] entries;
+    /** Positions of {@code bootstrap_methods} entries indexed by constant index, 0 if absent. */
+    private final int[] byConstant;
+
+    /**
+     * @param reader the class file reader
+     */
+    public BootstrapIndex(ClassFileReader reader) {
+        this.reader = reader;
+        int off = find(reader);
+        int count = off < 0 ? 0 : reader.readU2(off);
+        int[] entries = this.entries = new int[count];
+        for (int index = 0, pos = off + 2; index < count; ++index) {
+            entries[index] = pos;
+            pos+=(4 + reader.readU2(pos + 2)*2);
+        }
+        int[] byConstant = this.byConstant = new int[reader.count()];
+        for (int index = 1, len = byConstant.length; index < len; ++index) {
+            int tag = reader.tag(index);
+            if (tag == Tag.InvokeDynamic || tag == Tag.Dynamic) {
+                int bsm = reader.ref2Index1(index);
+                if (bsm < count) {
+                    byConstant[index] = entries[bsm];
+                }
+            } else if (tag == Tag.Long || tag == Tag.Double) {
+                ++index;
+            }
+        }
+    }
+
+    /**
+     * @return the position of {@code num_bootstrap_methods}, or -1 if absent
+     */
+    private static int find(ClassFileReader reader) {
+        int off = AttributeKinds.findClassAttribute(reader, AttributeKinds.BootstrapMethods);
+        return off < 0 ? -1 : off + 6;
+    }
+
+    /** @return {@code num_bootstrap_methods} */
+    public int count() {
+        return entries.length;
+    }
+
+    /**
+     * @param bsmIndex an index into {@code bootstrap_methods}
+     * @return the position of the entry
+     */
+    public int entryAt(int bsmIndex) {
+        return entries[bsmIndex];
+    }
+
+    /**
+     * @param index the index of a {@code CONSTANT_InvokeDynamic_info} or {@code CONSTANT_Dynamic_info}
+     * @return the position of its {@code bootstrap_methods} entry, or -1 if the constant is
+     * not such an entry or its {@code bootstrap_method_attr_index} is invalid
+     */
+    public int entry(int index) {
+        int pos = byConstant[index];
+        return pos == 0 ? -1 : pos;
+    }
+
+    /**
+     * @param pos the position of a {@code bootstrap_methods} entry
+     * @return {@code bootstrap_method_ref}, a {@code CONSTANT_MethodHandle_info}
+     */
+    public int methodHandle(int pos) {
+        return reader.readU2(pos);
+    }
+
+    /**
+     * @param pos the position of a {@code bootstrap_methods} entry
+     * @return {@code num_bootstrap_arguments}
+     */
+    public int argumentCount(int pos) {
+        return reader.readU2(pos + 2);
+    }
+
+    /**
+     * @param pos the position of a {@code bootstrap_methods} entry
+     * @param i the index of the argument
+     * @return the i-th {@code bootstrap_arguments}, a loadable constant
+     */
+    public int argument(int pos, int i) {
+        return reader.readU2(pos + 4 + i*2);
+    }
+
+    /**
+     * @param pos the position of a {@code bootstrap_methods} entry
+     * @return the name index of the class declaring the bootstrap method, a {@code CONSTANT_Utf8_info}
+     */
+    public int ownerIndex(int pos) {
+        ClassFileReader reader = this.reader;
+        return reader.ref1Index(reader.ref2Index1(reader.methodHandleIndex(methodHandle(pos))));
+    }
+
+    /**
+     * @param pos the position of a {@code bootstrap_methods} entry
+     * @return the name index of the bootstrap method, a {@code CONSTANT_Utf8_info}
+     */
+    public int nameIndex(int pos) {
+        ClassFileReader reader = this.reader;
+        return reader.ref2Index1(reader.ref2Index2(reader.methodHandleIndex(methodHandle(pos))));
+    }
+}
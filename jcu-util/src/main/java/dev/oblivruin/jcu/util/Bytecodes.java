@@ -0,0 +1,108 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.internal.BytesUtil;
+
+import static dev.oblivruin.jcu.constant.Opcodes.*;
+
+/**
+ * Helper for stepping over instructions in the {@code code} array of {@code Code} attribute.
+ *
+ * @author OblivRuinDev
+ */
+public final class Bytecodes {
+    private Bytecodes() {}
+
+    /**
+     * Length of each instruction (include the opcode), or 0 for variable-length instructions.
+     */
+    private static final byte[] LENGTH = new byte[256];
+
+    static {
+        byte[] len = LENGTH;
+        for (int op = 0; op < 256; ++op) {
+            len[op] = 1;
+        }
+        len[BIPUSH] = 2;
+        len[SIPUSH] = 3;
+        len[LDC] = 2;
+        len[LDC_W] = 3;
+        len[LDC2_W] = 3;
+        for (int op = ILOAD; op <= ALOAD; ++op) {
+            len[op] = 2;
+        }
+        for (int op = ISTORE; op <= ASTORE; ++op) {
+            len[op] = 2;
+        }
+        len[IINC] = 3;
+        for (int op = IFEQ; op <= JSR; ++op) {
+            len[op] = 3;
+        }
+        len[RET] = 2;
+        len[TABLESWITCH] = 0;
+        len[LOOKUPSWITCH] = 0;
+        for (int op = GETSTATIC; op <= INVOKESTATIC; ++op) {
+            len[op] = 3;
+        }
+        len[INVOKEINTERFACE] = 5;
+        len[INVOKEDYNAMIC] = 5;
+        len[NEW] = 3;
+        len[NEWARRAY] = 2;
+        len[ANEWARRAY] = 3;
+        len[CHECKCAST] = 3;
+        len[INSTANCEOF] = 3;
+        len[WIDE] = 0;
+        len[MULTIANEWARRAY] = 4;
+        len[IFNULL] = 3;
+        len[IFNONNULL] = 3;
+        len[GOTO_W] = 5;
+        len[JSR_W] = 5;
+    }
+
+    /**
+     * Returns the position of the instruction next to the one at {@code off}.
+     *
+     * @param bytes the array which contains the {@code code} array
+     * @param codeStart the position of {@code code[0]}, required by the padding of switch instructions
+     * @param off the position of current instruction's opcode
+     * @return the position of next instruction
+     */
+    public static int next(byte[] bytes, int codeStart, int off) {
+        int op = bytes[off] & 0xFF;
+        int len = LENGTH[op];
+        if (len != 0) {
+            return off + len;
+        }
+        switch (op) {
+            case TABLESWITCH: {
+                // skip padding, then default, low and high
+                int pos = off + 4 - ((off - codeStart) & 3);
+                int low = BytesUtil.getInt(bytes, pos + 4);
+                int high = BytesUtil.getInt(bytes, pos + 8);
+                return pos + 12 + (high - low + 1) * 4;
+            }
+            case LOOKUPSWITCH: {
+                // skip padding, then default and npairs
+                int pos = off + 4 - ((off - codeStart) & 3);
+                return pos + 8 + BytesUtil.getInt(bytes, pos + 4) * 8;
+            }
+            default:// wide
+                return off + ((bytes[off + 1] & 0xFF) == IINC ? 6 : 4);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.internal.Strings;
+import dev.oblivruin.jcu.misc.ByteArray;
+import dev.oblivruin.jcu.misc.IntArray;
+
+import java.util.stream.IntStream;
+
+import static dev.oblivruin.jcu.constant.Opcodes.*;
+import static dev.oblivruin.jcu.constant.Tag.*;
+
+/**
+ * A method-level call graph of a set of classes, edges are stored in CSR form keyed by dense method ids.
+ * <p>
+ * A method is identified by its owner, name and descriptor as written in the class files,
+ * virtual calls are not resolved against the class hierarchy.
+ * Edges come from:
+ * <ul>
+ *     <li>{@code invokevirtual}, {@code invokespecial}, {@code invokestatic} and {@code invokeinterface}</li>
+ *     <li>method handles in bootstrap arguments of {@code invokedynamic}, e.g. lambda bodies</li>
+ *     <li>method handles loaded by {@code ldc} and {@code ldc_w}</li>
+ * </ul>
+ * Classes are scanned in parallel into independent per-class results, which are then merged by
+ * the calling thread, so no lock or shared mutable state is involved.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * CallGraph graph = CallGraph.build(classes);
+ * int id = graph.find("java/lang/Object", "toString", "()Ljava/lang/String;");
+ * for (int i = graph.offsets[id]; i < graph.offsets[id + 1]; ++i) {
+ *     int callee = graph.targets[i];
+ * }
+ * }</pre>
+ *
+ * @author OblivRuinDev
+ */
+public final class CallGraph {
+    private final TypeTable methods;
+    private final boolean[] declared;
+    /** Callees of method {@code id} are {@code targets[offsets[id]] .. targets[offsets[id + 1] - 1]}. */
+    public final int[] offsets;
+    /** Callee ids, without duplicates for a caller. */
+    public final int[] targets;
+
+    private CallGraph(TypeTable methods, boolean[] declared, int[] offsets, int[] targets) {
+        this.methods = methods;
+        this.declared = declared;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Build the call graph using the common fork join pool.
+     *
+     * @param classes trusted class file bytes
+     * @return the call graph
+     */
+    public static CallGraph build(byte[][] classes) {
+        Part[] parts = new Part[classes.length];
+        IntStream.range(0, classes.length).parallel().forEach(index -> parts[index] = new Scanner(classes[index]).part());
+        return merge(parts);
+    }
+
+    private static CallGraph merge(Part[] parts) {
+        TypeTable methods = new TypeTable();
+        IntArray callers = new IntArray(), callees = new IntArray();
+        boolean[] declared = new boolean[1024];
+        int[] ids = new int[64];
+        for (Part part : parts) {
+            int count = part.offsets.length;
+            if (ids.length < count) {
+                ids = new int[Math.max(count, ids.length * 2)];
+            }
+            byte[] keys = part.keys.data;
+            for (int local = 0; local < count; ++local) {
+                ids[local] = methods.intern(keys, part.offsets.data[local], part.lengths.data[local]);
+            }
+            if (methods.size() > declared.length) {
+                boolean[] grown = new boolean[Math.max(methods.size(), declared.length * 2)];
+                System.arraycopy(declared, 0, grown, 0, declared.length);
+                declared = grown;
+            }
+            for (int local = 0; local < part.declared; ++local) {
+                declared[ids[local]] = true;
+            }
+            int[] edges = part.edges.data;
+            callers.ensureFree(part.edges.length >> 1);
+            callees.ensureFree(part.edges.length >> 1);
+            for (int index = 0, len = part.edges.length; index < len; index+=2) {
+                callers.add0(ids[edges[index]]);
+                callees.add0(ids[edges[index + 1]]);
+            }
+        }
+        int size = methods.size();
+        int[] offsets = new int[size + 1];
+        int edgeCount = callers.length;
+        int[] from = callers.data;
+        for (int index = 0; index < edgeCount; ++index) {
+            ++offsets[from[index] + 1];
+        }
+        for (int id = 0; id < size; ++id) {
+            offsets[id + 1]+=offsets[id];
+        }
+        int[] fill = new int[size];
+        System.arraycopy(offsets, 0, fill, 0, size);
+        int[] targets = new int[edgeCount];
+        for (int index = 0; index < edgeCount; ++index) {
+            targets[fill[from[index]]++] = callees.data[index];
+        }
+        boolean[] exact = new boolean[size];
+        System.arraycopy(declared, 0, exact, 0, Math.min(size, declared.length));
+        return new CallGraph(methods, exact, offsets, targets);
+    }
+
+    /** @return count of methods, declared or referenced */
+    public int size() {
+        return declared.length;
+    }
+
+    /**
+     * @param id a method id
+     * @return whether the method is declared by a scanned class (otherwise it's only referenced)
+     */
+    public boolean isDeclared(int id) {
+        return declared[id];
+    }
+
+    /**
+     * Find a method.
+     *
+     * @param owner the internal name of the owner
+     * @param name the method name
+     * @param desc the method descriptor
+     * @return the method id, or -1 if absent
+     */
+    public int find(String owner, String name, String desc) {
+        ByteArray key = new ByteArray(owner.length() + name.length() + desc.length() + 2);
+        Strings.write(owner, key);
+        key.add((byte) 0);
+        Strings.write(name, key);
+        key.add((byte) 0);
+        Strings.write(desc, key);
+        return methods.find(key.data, 0, key.length);
+    }
+
+    /**
+     * Describe a method, for reporting only.
+     *
+     * @param id a method id
+     * @return a string like {@code java/lang/Object.toString()Ljava/lang/String;}
+     */
+    public String name(int id) {
+        String key = methods.name(id);
+        int split = key.indexOf('\0');
+        return key.substring(0, split) + '.' + key.substring(split + 1).replace("\0", "");
+    }
+
+    /**
+     * Methods and edges of a single class, with class-local method ids.
+     * <br>
+     * Declared methods have ids {@code 0 .. declared - 1}, a key is {@code owner\0name\0descriptor},
+     * as modified UTF-8 never contains a zero byte.
+     */
+    private static final class Part {
+        final ByteArray keys;
+        final IntArray offsets, lengths;
+        final IntArray edges;
+        final int declared;
+
+        Part(ByteArray keys, IntArray offsets, IntArray lengths, IntArray edges, int declared) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.edges = edges;
+            this.declared = declared;
+        }
+    }
+
+    /**
+     * Scanning state of a single class, dropped once the {@link Part} is taken.
+     */
+    private static final class Scanner {
+        private final ByteArray keys = new ByteArray(1024);
+        private final IntArray offsets = new IntArray(32), lengths = new IntArray(32);
+        private final IntArray edges = new IntArray(64);
+        private final int declared;
+
+        private final ClassFileReader reader;
+        private final byte[] bytes;
+        /** Local ids indexed by constant index, plus 1. */
+        private final int[] locals;
+        /** Stamps indexed by local id, to add an edge once per caller. */
+        private int[] stamps = new int[64];
+        private BootstrapIndex bootstrap;
+
+        Scanner(byte[] classBytes) {
+            ClassFileReader reader = this.reader = new ClassFileReader(classBytes);
+            byte[] bytes = this.bytes = classBytes;
+            int count = reader.count();
+            this.locals = new int[count];
+            int code = 0;
+            for (int index = 1; index < count; ++index) {
+                int off = reader.offset(index);
+                if (bytes[off] == Utf8) {
+                    if (reader.readU2(off + 1) == 4 &&
+                            AttributeKinds.kindOf(bytes, off + 3, 4) == AttributeKinds.Code) {
+                        code = index;
+                        break;
+                    }
+                } else if (bytes[off] == Long || bytes[off] == Double) {
+                    ++index;
+                }
+            }
+            int owner = reader.ref1Index(reader.readU2(reader.header + 2));
+            int off = reader.methodPos();
+            int methods = reader.readU2(off);
+            this.declared = methods;
+            int[] codes = new int[methods];
+            off+=2;
+            for (int index = 0; index < methods; ++index) {
+                addKey(owner, reader.readU2(off + 2), reader.readU2(off + 4));
+                int attrs = reader.readU2(off + 6);
+                for (off+=8; attrs > 0; --attrs) {
+                    if (code != 0 && reader.readU2(off) == code) {
+                        codes[index] = off + 6;
+                    }
+                    off+=(6 + reader.readInt(off + 2));
+                }
+            }
+            for (int index = 0; index < methods; ++index) {
+                if (codes[index] != 0) {
+                    code(index, codes[index]);
+                }
+            }
+        }
+
+        Part part() {
+            return new Part(keys, offsets, lengths, edges, declared);
+        }
+
+        private int addKey(int owner, int name, int desc) {
+            ByteArray keys = this.keys;
+            int start = keys.length;
+            utf8(owner);
+            keys.add((byte) 0);
+            utf8(name);
+            keys.add((byte) 0);
+            utf8(desc);
+            offsets.add(start);
+            lengths.add(keys.length - start);
+            return offsets.length - 1;
+        }
+
+        private void utf8(int index) {
+            int off = reader.offset(index);
+            keys.add(bytes, off + 3, reader.readU2(off + 1));
+        }
+
+        /**
+         * @param index a {@code CONSTANT_Methodref_info} or {@code CONSTANT_InterfaceMethodref_info}
+         * @return the local id
+         */
+        private int local(int index) {
+            int local = locals[index] - 1;
+            if (local < 0) {
+                ClassFileReader reader = this.reader;
+                int nat = reader.ref2Index2(index);
+                local = addKey(reader.ref1Index(reader.ref2Index1(index)), reader.ref2Index1(nat), reader.ref2Index2(nat));
+                locals[index] = local + 1;
+            }
+            return local;
+        }
+
+        private void code(int caller, int off) {
+            byte[] bytes = this.bytes;
+            int stamp = caller + 1;
+            int start = off + 8;
+            int end = start + BytesUtil.getInt(bytes, off + 4);
+            for (int pos = start; pos < end; pos = Bytecodes.next(bytes, start, pos)) {
+                switch (bytes[pos] & 0xFF) {
+                    case INVOKEVIRTUAL:
+                    case INVOKESPECIAL:
+                    case INVOKESTATIC:
+                    case INVOKEINTERFACE:
+                        edge(caller, stamp, local(reader.readU2(pos + 1)));
+                        break;
+                    case INVOKEDYNAMIC: {
+                        if (bootstrap == null) {
+                            bootstrap = new BootstrapIndex(reader);
+                        }
+                        int entry = bootstrap.entry(reader.readU2(pos + 1));
+                        if (entry >= 0) {
+                            for (int i = 0, n = bootstrap.argumentCount(entry); i < n; ++i) {
+                                handle(caller, stamp, bootstrap.argument(entry, i));
+                            }
+                        }
+                        break;
+                    }
+                    case LDC:
+                        handle(caller, stamp, bytes[pos + 1] & 0xFF);
+                        break;
+                    case LDC_W:
+                        handle(caller, stamp, reader.readU2(pos + 1));
+                        break;
+                }
+            }
+        }
+
+        private void handle(int caller, int stamp, int index) {
+            ClassFileReader reader = this.reader;
+            if (reader.tag(index) == MethodHandle) {
+                int ref = reader.methodHandleIndex(index);
+                int tag = reader.tag(ref);
+                if (tag == Methodref || tag == InterfaceMethodref) {
+                    edge(caller, stamp, local(ref));
+                }
+            }
+        }
+
+        private void edge(int caller, int stamp, int callee) {
+            if (callee >= stamps.length) {
+                int[] grown = new int[Math.max(callee + 1, stamps.length * 2)];
+                System.arraycopy(stamps, 0, grown, 0, stamps.length);
+                stamps = grown;
+            }
+            if (stamps[callee] != stamp) {
+                stamps[callee] = stamp;
+                edges.ensureFree(2);
+                edges.add0(caller);
+                edges.add0(callee);
+            }
+        }
+    }
+}
@@ -0,0 +1,480 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.misc.IntArray;
+
+import java.util.HashMap;
+
+import static dev.oblivruin.jcu.constant.Tag.*;
+
+/**
+ * Structural comparison of two class files, without disassembling them.
+ * <p>
+ * Constants are compared by value, so class files with different constant pool orders
+ * can be equal. Fields and methods are matched by name and descriptor, attributes are matched
+ * by name, their contents are compared range by range, and constant indexes in them
+ * (found by {@link ConstantRefWalker}) are compared by value.
+ * <br>
+ * Attributes with unknown layout are compared as raw bytes,
+ * and the order of fields, methods and attributes is ignored.
+ * <p>
+ * Fast paths:
+ * <ul>
+ *     <li>identical class files are equal without parsing members</li>
+ *     <li>if both constant pools are identical, constants are compared by index,
+ *     and attributes are compared as raw bytes</li>
+ *     <li>otherwise each constant has a lazily computed 64-bit hash,
+ *     constants with different hashes are different without recursion</li>
+ * </ul>
+ *
+ * @author OblivRuinDev
+ */
+public final class ClassDiff {
+    /**
+     * Receives differences.
+     */
+    public interface Reporter {
+        /**
+         * @param where the location, e.g. {@code method foo(I)V/Code}
+         * @param message the description of the difference
+         */
+        void report(String where, String message);
+    }
+
+    private static final int CLASS = 0, FIELD = 1, METHOD = 2;
+
+    private final ClassFileReader left, right;
+    private final byte[] lb, rb;
+    private final Reporter reporter;
+    private final boolean samePool;
+    /** Semantic hashes indexed by constant index, 0 if not computed. */
+    private long[] lh, rh;
+    private Refs lRefs, rRefs;
+    private int diffs = 0;
+    /** Current scope for reporting. */
+    private int scope = CLASS, member = 0;
+
+    private ClassDiff(ClassFileReader left, ClassFileReader right, Reporter reporter) {
+        this.left = left;
+        this.right = right;
+        this.lb = left.bytes();
+        this.rb = right.bytes();
+        this.reporter = reporter;
+        this.samePool = left.header == right.header && mismatch(lb, 8, rb, 8, left.header - 8) < 0;
+    }
+
+    /**
+     * Check whether two class files are structurally equal, stops at the first difference.
+     *
+     * @param left the reader of one class file
+     * @param right the reader of another class file
+     * @return whether they are equal
+     */
+    public static boolean equals(ClassFileReader left, ClassFileReader right) {
+        return diff(left, right, null) == 0;
+    }
+
+    /**
+     * Compare two class files.
+     *
+     * @param left the reader of the old class file
+     * @param right the reader of the new class file
+     * @param reporter receives every difference, or {@code null} to stop at the first one
+     * @return the number of differences found
+     */
+    public static int diff(ClassFileReader left, ClassFileReader right, Reporter reporter) {
+        byte[] lb = left.bytes(), rb = right.bytes();
+        if (lb == rb || (lb.length == rb.length && mismatch(lb, 0, rb, 0, lb.length) < 0)) {
+            return 0;
+        }
+        ClassDiff diff = new ClassDiff(left, right, reporter);
+        diff.run();
+        return diff.diffs;
+    }
+
+    private void run() {
+        if (BytesUtil.getInt(lb, 4) != BytesUtil.getInt(rb, 4)) {
+            report("version " + left.readU2(6) + '.' + left.readU2(4) +
+                    " -> " + right.readU2(6) + '.' + right.readU2(4));
+        }
+        int lOff = left.header, rOff = right.header;
+        if (lb[lOff] != rb[rOff] || lb[lOff + 1] != rb[rOff + 1]) {
+            report("access_flags 0x" + java.lang.Integer.toHexString(left.readU2(lOff)) +
+                    " -> 0x" + java.lang.Integer.toHexString(right.readU2(rOff)));
+        }
+        if (!same(left.readU2(lOff + 2), right.readU2(rOff + 2))) {
+            report("this_class " + className(left, lOff + 2) + " -> " + className(right, rOff + 2));
+        }
+        if (!same(left.readU2(lOff + 4), right.readU2(rOff + 4))) {
+            report("super_class " + className(left, lOff + 4) + " -> " + className(right, rOff + 4));
+        }
+        int count = left.interfaceCount;
+        boolean same = count == right.interfaceCount;
+        for (int index = 0; same && index < count; ++index) {
+            same = same(left.readU2(lOff + 8 + index*2), right.readU2(rOff + 8 + index*2));
+        }
+        if (!same) {
+            report("interfaces differ");
+        }
+        if (stop()) {
+            return;
+        }
+        lOff = left.fieldPos();
+        rOff = right.fieldPos();
+        for (scope = FIELD; scope <= METHOD; ++scope) {
+            int[] ends = new int[2];
+            members(lOff, rOff, ends);
+            if (stop()) {
+                return;
+            }
+            lOff = ends[0];
+            rOff = ends[1];
+        }
+        scope = CLASS;
+        attributes(lOff, rOff);
+    }
+
+    /**
+     * @param ends receives the end positions of both sides
+     */
+    private void members(int lOff, int rOff, int[] ends) {
+        int lCount = left.readU2(lOff), rCount = right.readU2(rOff);
+        int[] lPos = new int[lCount], rPos = new int[rCount];
+        ends[0] = positions(left, lOff + 2, lPos);
+        ends[1] = positions(right, rOff + 2, rPos);
+        HashMap<String, Integer> map = new HashMap<>(rCount * 2);
+        for (int index = 0; index < rCount; ++index) {
+            map.put(key(right, rPos[index]), index);
+        }
+        boolean[] matched = new boolean[rCount];
+        for (int index = 0; index < lCount && !stop(); ++index) {
+            int lp = lPos[index];
+            Integer found = map.get(key(left, lp));
+            member = lp;
+            if (found == null) {
+                report("removed");
+                continue;
+            }
+            int rp = rPos[found];
+            matched[found] = true;
+            if (lb[lp] != rb[rp] || lb[lp + 1] != rb[rp + 1]) {
+                report("access_flags 0x" + java.lang.Integer.toHexString(left.readU2(lp)) +
+                        " -> 0x" + java.lang.Integer.toHexString(right.readU2(rp)));
+            }
+            attributes(lp + 6, rp + 6);
+        }
+        for (int index = 0; index < rCount && !stop(); ++index) {
+            if (!matched[index]) {
+                diffs++;
+                if (reporter != null) {
+                    reporter.report(where(right, rPos[index]), "added");
+                }
+            }
+        }
+        member = 0;
+    }
+
+    private static int positions(ClassFileReader reader, int off, int[] positions) {
+        for (int index = 0; index < positions.length; ++index) {
+            positions[index] = off;
+            off = reader.skipAttributes(off + 6);
+        }
+        return off;
+    }
+
+    private static String key(ClassFileReader reader, int off) {
+        // ';' is not allowed in unqualified names
+        return reader.utf8V(reader.readU2(off + 2)) + ';' + reader.utf8V(reader.readU2(off + 4));
+    }
+
+    private void attributes(int lOff, int rOff) {
+        int lCount = left.readU2(lOff), rCount = right.readU2(rOff);
+        int[] rPos = new int[rCount];
+        rOff+=2;
+        for (int index = 0; index < rCount; ++index) {
+            rPos[index] = rOff;
+            rOff+=(6 + right.readInt(rOff + 2));
+        }
+        boolean[] matched = new boolean[rCount];
+        lOff+=2;
+        for (; lCount > 0 && !stop(); --lCount) {
+            int name = left.readU2(lOff);
+            int found = -1;
+            for (int index = 0; index < rCount; ++index) {
+                if (!matched[index] && same(name, right.readU2(rPos[index]))) {
+                    found = index;
+                    break;
+                }
+            }
+            int len = left.readInt(lOff + 2);
+            if (found < 0) {
+                report("removed attribute " + left.utf8V(name));
+            } else {
+                matched[found] = true;
+                attribute(name, lOff + 6, len, rPos[found] + 6, right.readInt(rPos[found] + 2));
+            }
+            lOff+=(6 + len);
+        }
+        for (int index = 0; index < rCount && !stop(); ++index) {
+            if (!matched[index]) {
+                report("added attribute " + right.utf8V(right.readU2(rPos[index])));
+            }
+        }
+    }
+
+    /**
+     * Compare contents of two attributes with the same name.
+     */
+    private void attribute(int name, int lOff, int lLen, int rOff, int rLen) {
+        if (samePool) {
+            if (lLen != rLen || mismatch(lb, lOff, rb, rOff, lLen) >= 0) {
+                report(left.utf8V(name) + " differs");
+            }
+            return;
+        }
+        if (lRefs == null) {
+            lRefs = new Refs(left);
+            rRefs = new Refs(right);
+        }
+        int kind = lRefs.kinds[name];
+        boolean known = lRefs.collect(kind, lOff, lLen) & rRefs.collect(kind, rOff, rLen);
+        int at;
+        if (lLen != rLen) {
+            at = -2;
+        } else if (!known) {
+            at = mismatch(lb, lOff, rb, rOff, lLen);
+        } else {
+            at = compare(lOff, rOff, lLen);
+        }
+        if (at == -2) {
+            report(left.utf8V(name) + " length " + lLen + " -> " + rLen);
+        } else if (at >= 0) {
+            report(left.utf8V(name) + " differs at +" + at);
+        }
+    }
+
+    /**
+     * Compare attribute contents range by range.
+     *
+     * @return the first relative position that differs, or -1 if equal
+     */
+    private int compare(int lOff, int rOff, int len) {
+        IntArray lp = lRefs.positions, rp = rRefs.positions;
+        int[] ld = lp.data, rd = rp.data;
+        int count = Math.min(lp.length, rp.length);
+        int pos = 0;// relative position of the start of current range
+        for (int index = 0; index < count; ++index) {
+            int l = ld[index], r = rd[index];
+            int at = (l >>> 1) - lOff;
+            if (at != (r >>> 1) - rOff || (l & 1) != (r & 1)) {
+                // layouts diverge, the bytes before must differ
+                int m = mismatch(lb, lOff + pos, rb, rOff + pos, len - pos);
+                return m < 0 ? Math.min(at, (r >>> 1) - rOff) : pos + m;
+            }
+            int m = mismatch(lb, lOff + pos, rb, rOff + pos, at - pos);
+            if (m >= 0) {
+                return pos + m;
+            }
+            if ((l & 1) == 0) {
+                if (!same(left.readU2(l >>> 1), right.readU2(r >>> 1))) {
+                    return at;
+                }
+                pos = at + 2;
+            } else {
+                if (!same(lb[l >>> 1] & 0xFF, rb[r >>> 1] & 0xFF)) {
+                    return at;
+                }
+                pos = at + 1;
+            }
+        }
+        if (lp.length != rp.length) {
+            return pos;
+        }
+        int m = mismatch(lb, lOff + pos, rb, rOff + pos, len - pos);
+        return m < 0 ? -1 : pos + m;
+    }
+
+    /**
+     * Check whether two constants are equal by value.
+     *
+     * @param l a constant index of left, or 0
+     * @param r a constant index of right, or 0
+     */
+    private boolean same(int l, int r) {
+        if (samePool || l == 0 || r == 0) {
+            return l == r;
+        }
+        if (lh == null) {
+            lh = new long[left.count()];
+            rh = new long[right.count()];
+        }
+        if (hash(left, lh, l) != hash(right, rh, r)) {
+            return false;
+        }
+        int lOff = left.offset(l), rOff = right.offset(r);
+        int tag = lb[lOff];
+        if (tag != rb[rOff]) {
+            return false;
+        }
+        switch (tag) {
+            case Utf8:
+                int len = left.readU2(lOff + 1);
+                return len == right.readU2(rOff + 1) && mismatch(lb, lOff + 3, rb, rOff + 3, len) < 0;
+            case Integer:
+            case Float:
+                return BytesUtil.getInt(lb, lOff + 1) == BytesUtil.getInt(rb, rOff + 1);
+            case Long:
+            case Double:
+                return BytesUtil.getLong(lb, lOff + 1) == BytesUtil.getLong(rb, rOff + 1);
+            case Fieldref:
+            case Methodref:
+            case InterfaceMethodref:
+            case NameAndType:
+                return same(left.readU2(lOff + 1), right.readU2(rOff + 1)) &&
+                        same(left.readU2(lOff + 3), right.readU2(rOff + 3));
+            case Dynamic:
+            case InvokeDynamic:
+                // bootstrap_method_attr_index is compared within BootstrapMethods
+                return left.readU2(lOff + 1) == right.readU2(rOff + 1) &&
+                        same(left.readU2(lOff + 3), right.readU2(rOff + 3));
+            case MethodHandle:
+                return lb[lOff + 1] == rb[rOff + 1] && same(left.readU2(lOff + 2), right.readU2(rOff + 2));
+            default:// Class, String, MethodType, Module, Package
+                return same(left.readU2(lOff + 1), right.readU2(rOff + 1));
+        }
+    }
+
+    private static long hash(ClassFileReader reader, long[] hashes, int index) {
+        long h = hashes[index];
+        if (h != 0) {
+            return h;
+        }
+        byte[] bytes = reader.bytes();
+        int off = reader.offset(index);
+        int tag = bytes[off];
+        h = tag;
+        switch (tag) {
+            case Utf8:
+                for (int pos = off + 3, end = pos + reader.readU2(off + 1); pos < end; ++pos) {
+                    h = (h ^ bytes[pos]) * 0x100000001B3L;
+                }
+                break;
+            case Integer:
+            case Float:
+                h = h * 31 + BytesUtil.getInt(bytes, off + 1);
+                break;
+            case Long:
+            case Double:
+                h = h * 31 + BytesUtil.getLong(bytes, off + 1);
+                break;
+            case Fieldref:
+            case Methodref:
+            case InterfaceMethodref:
+            case NameAndType:
+                h = (h * 31 + hash(reader, hashes, reader.readU2(off + 1))) * 31 +
+                        hash(reader, hashes, reader.readU2(off + 3));
+                break;
+            case Dynamic:
+            case InvokeDynamic:
+                h = (h * 31 + reader.readU2(off + 1)) * 31 + hash(reader, hashes, reader.readU2(off + 3));
+                break;
+            case MethodHandle:
+                h = (h * 31 + bytes[off + 1]) * 31 + hash(reader, hashes, reader.readU2(off + 2));
+                break;
+            default:// Class, String, MethodType, Module, Package
+                h = h * 31 + hash(reader, hashes, reader.readU2(off + 1));
+                break;
+        }
+        h^=(h >>> 29);
+        return hashes[index] = (h == 0 ? 1 : h);
+    }
+
+    private boolean stop() {
+        return reporter == null && diffs != 0;
+    }
+
+    private void report(String message) {
+        diffs++;
+        if (reporter != null) {
+            reporter.report(where(left, member), message);
+        }
+    }
+
+    private String where(ClassFileReader reader, int off) {
+        switch (scope) {
+            case FIELD:
+                return "field " + reader.utf8V(reader.readU2(off + 2)) + ':' + reader.utf8V(reader.readU2(off + 4));
+            case METHOD:
+                return "method " + reader.utf8V(reader.readU2(off + 2)) + reader.utf8V(reader.readU2(off + 4));
+            default:
+                return "class";
+        }
+    }
+
+    private static String className(ClassFileReader reader, int off) {
+        int index = reader.readU2(off);
+        return index == 0 ? "<none>" : reader.utf8V(reader.ref1Index(index));
+    }
+
+    /**
+     * @return the first relative position that differs, or -1 if equal
+     */
+    private static int mismatch(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        int index = 0;
+        for (int end = len - 7; index < end; index+=8) {
+            if (BytesUtil.getLong(a, aOff + index) != BytesUtil.getLong(b, bOff + index)) {
+                break;
+            }
+        }
+        for (; index < len; ++index) {
+            if (a[aOff + index] != b[bOff + index]) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Records positions of constant indexes, {@code pos << 1} for {@code u2}
+     * and {@code pos << 1 | 1} for {@code u1} of {@code ldc}.
+     */
+    private static final class Refs extends ConstantRefWalker {
+        final IntArray positions = new IntArray(16);
+
+        Refs(ClassFileReader reader) {
+            super(reader);
+        }
+
+        boolean collect(int kind, int off, int len) {
+            positions.clear();
+            return attribute(kind, off, len);
+        }
+
+        @Override
+        protected void ref(int off) {
+            positions.add(off << 1);
+        }
+
+        @Override
+        protected void ldc(int off) {
+            positions.add(off << 1 | 1);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.internal.BytesUtil;
+
+import static dev.oblivruin.jcu.constant.Tag.*;
+
+/**
+ * A finishing pass which reorders the constant pool deterministically.
+ * <p>
+ * The new order is:
+ * <ol>
+ *     <li>constants loaded by {@code ldc}, they are always placed below index 256</li>
+ *     <li>constants loaded by {@code ldc_w}, the most used first</li>
+ *     <li>the others, grouped by tag, {@code CONSTANT_Utf8_info} entries are sorted by their bytes
+ *     and other entries keep their original order in the group</li>
+ * </ol>
+ * Grouping similar entries improves the compression ratio of deflate.
+ * As every constant keeps its size, the sorted class file has exactly the same length,
+ * and all positions outside the constant pool are unchanged.
+ * <p>
+ * Usage: {@code ConstantPoolSorter.sort(classFileWriter.toByteArray())}
+ *
+ * @see ConstantRefWalker
+ * @author OblivRuinDev
+ */
+public final class ConstantPoolSorter extends ConstantRefWalker {
+    /** Tag order of groups. */
+    private static final byte[] ORDER = {
+            Utf8, Class, String, NameAndType, Fieldref, Methodref, InterfaceMethodref,
+            MethodHandle, MethodType, Dynamic, InvokeDynamic, Module, Package,
+            Integer, Float, Long, Double
+    };
+
+    /** Use count of each constant, constants loaded by {@code ldc} are marked by -1. */
+    private final int[] counts;
+    private final int[] ldcW;
+    private int[] map = null;
+    private byte[] output = null;
+
+    private ConstantPoolSorter(ClassFileReader reader) {
+        super(reader);
+        this.counts = new int[reader.count()];
+        this.ldcW = new int[reader.count()];
+    }
+
+    /**
+     * Sort the constant pool of given class file.
+     *
+     * @param bytes trusted class file bytes
+     * @return the sorted class file, or {@code bytes} itself if it contains
+     * an attribute whose layout is unknown (references in it can't be rewritten)
+     */
+    public static byte[] sort(byte[] bytes) {
+        return sort(new ClassFileReader(bytes));
+    }
+
+    /**
+     * Sort the constant pool of the class file of given reader.
+     *
+     * @param reader the class file reader
+     * @return the sorted class file, or {@code reader.bytes()} itself if it contains
+     * an attribute whose layout is unknown (references in it can't be rewritten)
+     */
+    public static byte[] sort(ClassFileReader reader) {
+        ConstantPoolSorter sorter = new ConstantPoolSorter(reader);
+        if (!sorter.walk()) {
+            return reader.bytes();
+        }
+        sorter.map = sorter.order();
+        byte[] output = sorter.output = sorter.writePool();
+        sorter.walk();// rewrite
+        return output;
+    }
+
+    @Override
+    protected void ref(int off) {
+        if (map == null) {
+            int index = readU2(off);
+            if (counts[index] >= 0) {
+                ++counts[index];
+            }
+        } else {
+            BytesUtil.setUShort(output, off, map[readU2(off)]);
+        }
+    }
+
+    @Override
+    protected void ldc(int off) {
+        if (map == null) {
+            counts[bytes[off] & 0xFF] = -1;
+        } else {
+            output[off] = (byte) map[bytes[off] & 0xFF];
+        }
+    }
+
+    @Override
+    protected void ldcW(int off) {
+        if (map == null) {
+            ++ldcW[readU2(off)];
+        }
+        ref(off);
+    }
+
+    /**
+     * Compute the new index of each constant.
+     *
+     * @return new indexes indexed by old indexes
+     */
+    private int[] order() {
+        int count = counts.length;
+        int[] sorted = new int[count];// old indexes in new order
+        int len = 0;
+        for (int index = 1; index < count; ++index) {
+            if (counts[index] < 0) {
+                sorted[len++] = index;
+            }
+        }
+        int hot = len;
+        for (int index = 1; index < count; ++index) {
+            if (ldcW[index] != 0 && counts[index] >= 0) {
+                sorted[len++] = index;
+            }
+        }
+        // insertion sort, ldc_w targets are few
+        for (int i = hot + 1; i < len; ++i) {
+            int v = sorted[i];
+            int j = i - 1;
+            for (; j >= hot && ldcW[sorted[j]] < ldcW[v]; --j) {
+                sorted[j + 1] = sorted[j];
+            }
+            sorted[j + 1] = v;
+        }
+        for (byte tag : ORDER) {
+            int start = len;
+            for (int index = 1; index < count; ++index) {
+                if (tag(index) == tag && counts[index] >= 0 && ldcW[index] == 0) {
+                    sorted[len++] = index;
+                }
+            }
+            if (tag == Utf8) {
+                sortUtf8(sorted, start, len);
+            }
+        }
+        int[] map = new int[count];
+        for (int index = 0, next = 1; index < len; ++index) {
+            int old = sorted[index];
+            map[old] = next;
+            int tag = tag(old);
+            next+=(tag == Long || tag == Double) ? 2 : 1;
+        }
+        return map;
+    }
+
+    private int tag(int index) {
+        int off = reader.offset(index);
+        return off == 0 ? 0 : bytes[off];// 2nd slot of Long and Double
+    }
+
+    /**
+     * Stable merge sort of {@code sorted[start .. end)}, short runs are sorted by insertion.
+     */
+    private void sortUtf8(int[] sorted, int start, int end) {
+        if (end - start > 1) {
+            mergeSort(sorted, new int[end - start], start, end);
+        }
+    }
+
+    private void mergeSort(int[] sorted, int[] temp, int start, int end) {
+        if (end - start <= 16) {
+            for (int i = start + 1; i < end; ++i) {
+                int v = sorted[i];
+                int j = i - 1;
+                for (; j >= start && compareUtf8(sorted[j], v) > 0; --j) {
+                    sorted[j + 1] = sorted[j];
+                }
+                sorted[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        mergeSort(sorted, temp, start, mid);
+        mergeSort(sorted, temp, mid, end);
+        if (compareUtf8(sorted[mid - 1], sorted[mid]) <= 0) {
+            return;// already in order
+        }
+        int len = mid - start;
+        System.arraycopy(sorted, start, temp, 0, len);
+        int i = 0, j = mid, k = start;
+        while (i < len && j < end) {
+            sorted[k++] = compareUtf8(sorted[j], temp[i]) < 0 ? sorted[j++] : temp[i++];
+        }
+        System.arraycopy(temp, i, sorted, k, len - i);
+    }
+
+    private int compareUtf8(int i1, int i2) {
+        byte[] bytes = this.bytes;
+        int off1 = reader.offset(i1) + 1;
+        int off2 = reader.offset(i2) + 1;
+        int len1 = readU2(off1);
+        int len2 = readU2(off2);
+        off1+=2;
+        off2+=2;
+        for (int index = 0, len = Math.min(len1, len2); index < len; ++index) {
+            int v = (bytes[off1 + index] & 0xFF) - (bytes[off2 + index] & 0xFF);
+            if (v != 0) {
+                return v;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Copy the class file and write constants in new order.
+     */
+    private byte[] writePool() {
+        byte[] bytes = this.bytes;
+        byte[] output = bytes.clone();
+        int[] map = this.map;
+        int count = map.length;
+        // old indexes in new order
+        int[] olds = new int[count];
+        for (int index = 1; index < count; ++index) {
+            if (map[index] != 0) {
+                olds[map[index]] = index;
+            }
+        }
+        int pos = 10;
+        for (int next = 1; next < count; ++next) {
+            int old = olds[next];
+            if (old == 0) {
+                continue;// 2nd slot of Long and Double
+            }
+            int off = reader.offset(old);
+            int tag = bytes[off];
+            output[pos] = (byte) tag;
+            switch (tag) {
+                case Utf8:
+                    int len = readU2(off + 1) + 2;
+                    System.arraycopy(bytes, off + 1, output, pos + 1, len);
+                    pos+=(len + 1);
+                    break;
+                case Integer:
+                case Float:
+                    BytesUtil.setInt(output, pos + 1, BytesUtil.getInt(bytes, off + 1));
+                    pos+=5;
+                    break;
+                case Long:
+                case Double:
+                    BytesUtil.setLong(output, pos + 1, BytesUtil.getLong(bytes, off + 1));
+                    pos+=9;
+                    break;
+                case Fieldref:
+                case Methodref:
+                case InterfaceMethodref:
+                case NameAndType:
+                    BytesUtil.setUShort(output, pos + 1, map[readU2(off + 1)]);
+                    BytesUtil.setUShort(output, pos + 3, map[readU2(off + 3)]);
+                    pos+=5;
+                    break;
+                case Dynamic:
+                case InvokeDynamic:
+                    // bootstrap_method_attr_index is not a constant index
+                    BytesUtil.setUShort(output, pos + 1, readU2(off + 1));
+                    BytesUtil.setUShort(output, pos + 3, map[readU2(off + 3)]);
+                    pos+=5;
+                    break;
+                case MethodHandle:
+                    output[pos + 1] = bytes[off + 1];
+                    BytesUtil.setUShort(output, pos + 2, map[readU2(off + 2)]);
+                    pos+=4;
+                    break;
+                default:// Class, String, MethodType, Module, Package
+                    BytesUtil.setUShort(output, pos + 1, map[readU2(off + 1)]);
+                    pos+=3;
+                    break;
+            }
+        }
+        return output;
+    }
+}
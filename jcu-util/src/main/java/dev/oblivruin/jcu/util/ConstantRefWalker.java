@@ -0,0 +1,443 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.internal.BytesUtil;
+
+import static dev.oblivruin.jcu.constant.Opcodes.*;
+
+/**
+ * Walks every position which stores a constant pool index outside the constant pool,
+ * include those in the {@code code} array and in the predefined attributes.
+ * <br>
+ * References between constants (e.g. {@code CONSTANT_Class_info.name_index}) are not reported,
+ * and optional references whose value is 0 (e.g. {@code super_class} of {@link Object}) are skipped.
+ * <p>
+ * The layout of an attribute is recognised by its name, see {@link AttributeKinds},
+ * an attribute with an unknown name stops walking as its content can't be interpreted.
+ *
+ * @author OblivRuinDev
+ */
+public abstract class ConstantRefWalker {
+    protected final ClassFileReader reader;
+    /**
+     * Class file bytes.
+     * <br>
+     * <b>DO NOT CHANGE ELEMENTS IN THIS ARRAY OR UNEXPECTED BEHAVIOR MAY OCCUR!!!</b>
+     */
+    protected final byte[] bytes;
+    /** Attribute kinds indexed by constant index, see {@link AttributeKinds#resolve(ClassFileReader)}. */
+    protected final byte[] kinds;
+
+    protected ConstantRefWalker(ClassFileReader reader) {
+        this(reader, AttributeKinds.resolve(reader));
+    }
+
+    protected ConstantRefWalker(ClassFileReader reader, byte[] kinds) {
+        this.reader = reader;
+        this.bytes = reader.bytes();
+        this.kinds = kinds;
+    }
+
+    /**
+     * Visits a {@code u2} constant index.
+     *
+     * @param off the position of the index
+     */
+    protected abstract void ref(int off);
+
+    /**
+     * Visits the {@code u1} constant index of a {@code ldc} instruction.
+     *
+     * @param off the position of the index
+     */
+    protected abstract void ldc(int off);
+
+    /**
+     * Visits the {@code u2} constant index of a {@code ldc_w} or {@code ldc2_w} instruction,
+     * delegating to {@link #ref(int)} by default.
+     *
+     * @param off the position of the index
+     */
+    protected void ldcW(int off) {
+        ref(off);
+    }
+
+    /**
+     * Walks the whole class file.
+     *
+     * @return {@code false} if an attribute with unknown layout was met,
+     * the positions before that attribute have been visited.
+     */
+    public final boolean walk() {
+        int off = reader.header;
+        opt(off + 2);// this_class
+        opt(off + 4);// super_class
+        int count = readU2(off + 6);
+        off+=8;
+        for (; count > 0; --count, off+=2) {
+            ref(off);
+        }
+        for (int member = 0; member < 2; ++member) {// fields, then methods
+            count = readU2(off);
+            off+=2;
+            for (; count > 0; --count) {
+                ref(off + 2);// name_index
+                ref(off + 4);// descriptor_index
+                if ((off = attributes(off + 6)) < 0) {
+                    return false;
+                }
+            }
+        }
+        return attributes(off) >= 0;
+    }
+
+    /**
+     * Walks an attributes structure.
+     *
+     * @param off point to {@code attributes_count}
+     * @return the end position of the structure, or -1 if an attribute with unknown layout was met
+     */
+    protected final int attributes(int off) {
+        int count = readU2(off);
+        off+=2;
+        for (; count > 0; --count) {
+            ref(off);
+            int len = BytesUtil.getInt(bytes, off + 2);
+            if (!attribute(kinds[readU2(off)], off + 6, len)) {
+                return -1;
+            }
+            off+=(6 + len);
+        }
+        return off;
+    }
+
+    /**
+     * Walks the content of an attribute.
+     *
+     * @param kind the attribute kind, see {@link AttributeKinds}
+     * @param off the position of {@code info[0]}
+     * @param len the value of {@code attribute_length}
+     * @return whether the layout of the attribute is known
+     */
+    protected boolean attribute(int kind, int off, int len) {
+        int count;
+        switch (kind) {
+            case AttributeKinds.ConstantValue:
+            case AttributeKinds.Signature:
+            case AttributeKinds.SourceFile:
+            case AttributeKinds.NestHost:
+            case AttributeKinds.ModuleMainClass:
+            case AttributeKinds.ModuleTarget:
+                ref(off);
+                return true;
+            case AttributeKinds.Synthetic:
+            case AttributeKinds.Deprecated:
+            case AttributeKinds.SourceDebugExtension:
+            case AttributeKinds.LineNumberTable:
+                return true;
+            case AttributeKinds.Code:
+                return code(off);
+            case AttributeKinds.StackMapTable:
+                stackMapTable(off);
+                return true;
+            case AttributeKinds.Exceptions:
+            case AttributeKinds.NestMembers:
+            case AttributeKinds.PermittedSubclasses:
+            case AttributeKinds.ModulePackages:
+                refs(off);
+                return true;
+            case AttributeKinds.InnerClasses:
+                count = readU2(off);
+                for (off+=2; count > 0; --count, off+=8) {
+                    ref(off);
+                    opt(off + 2);
+                    opt(off + 4);
+                }
+                return true;
+            case AttributeKinds.EnclosingMethod:
+                ref(off);
+                opt(off + 2);
+                return true;
+            case AttributeKinds.LocalVariableTable:
+            case AttributeKinds.LocalVariableTypeTable:
+                count = readU2(off);
+                for (off+=2; count > 0; --count, off+=10) {
+                    ref(off + 4);
+                    ref(off + 6);
+                }
+                return true;
+            case AttributeKinds.RuntimeVisibleAnnotations:
+            case AttributeKinds.RuntimeInvisibleAnnotations:
+                annotations(off);
+                return true;
+            case AttributeKinds.RuntimeVisibleParameterAnnotations:
+            case AttributeKinds.RuntimeInvisibleParameterAnnotations:
+                count = bytes[off] & 0xFF;
+                for (++off; count > 0; --count) {
+                    off = annotations(off);
+                }
+                return true;
+            case AttributeKinds.RuntimeVisibleTypeAnnotations:
+            case AttributeKinds.RuntimeInvisibleTypeAnnotations:
+                count = readU2(off);
+                for (off+=2; count > 0; --count) {
+                    off = typeAnnotation(off);
+                }
+                return true;
+            case AttributeKinds.AnnotationDefault:
+                elementValue(off);
+                return true;
+            case AttributeKinds.MethodParameters:
+                count = bytes[off] & 0xFF;
+                for (++off; count > 0; --count, off+=4) {
+                    opt(off);
+                }
+                return true;
+            case AttributeKinds.BootstrapMethods:
+                count = readU2(off);
+                for (off+=2; count > 0; --count) {
+                    ref(off);
+                    off = refs(off + 2);
+                }
+                return true;
+            case AttributeKinds.Record:
+                count = readU2(off);
+                for (off+=2; count > 0; --count) {
+                    ref(off);
+                    ref(off + 2);
+                    if ((off = attributes(off + 4)) < 0) {
+                        return false;
+                    }
+                }
+                return true;
+            case AttributeKinds.Module:
+                module(off);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Walks the content of {@code Code} attribute, include its nested attributes.
+     *
+     * @param off the position of {@code max_stack}
+     * @return whether all nested attributes have known layout
+     */
+    protected boolean code(int off) {
+        byte[] bytes = this.bytes;
+        int start = off + 8;
+        int end = start + BytesUtil.getInt(bytes, off + 4);
+        for (int pos = start; pos < end; pos = Bytecodes.next(bytes, start, pos)) {
+            switch (bytes[pos] & 0xFF) {
+                case LDC:
+                    ldc(pos + 1);
+                    break;
+                case LDC_W:
+                case LDC2_W:
+                    ldcW(pos + 1);
+                    break;
+                case GETSTATIC:
+                case PUTSTATIC:
+                case GETFIELD:
+                case PUTFIELD:
+                case INVOKEVIRTUAL:
+                case INVOKESPECIAL:
+                case INVOKESTATIC:
+                case INVOKEINTERFACE:
+                case INVOKEDYNAMIC:
+                case NEW:
+                case ANEWARRAY:
+                case CHECKCAST:
+                case INSTANCEOF:
+                case MULTIANEWARRAY:
+                    ref(pos + 1);
+                    break;
+            }
+        }
+        int count = readU2(end);
+        for (end+=2; count > 0; --count, end+=8) {
+            opt(end + 6);// catch_type
+        }
+        return attributes(end) >= 0;
+    }
+
+    private void stackMapTable(int off) {
+        int count = readU2(off);
+        for (off+=2; count > 0; --count) {
+            int type = bytes[off++] & 0xFF;
+            if (type < 64) {
+                continue;// same_frame
+            }
+            if (type < 128) {
+                off = verificationType(off);// same_locals_1_stack_item_frame
+            } else if (type == 247) {
+                off = verificationType(off + 2);// same_locals_1_stack_item_frame_extended
+            } else if (type < 252) {
+                off+=2;// chop_frame, same_frame_extended
+            } else if (type < 255) {
+                off+=2;// append_frame
+                for (type-=251; type > 0; --type) {
+                    off = verificationType(off);
+                }
+            } else {
+                off+=2;// full_frame
+                for (int item = 0; item < 2; ++item) {// locals, then stack
+                    int n = readU2(off);
+                    for (off+=2; n > 0; --n) {
+                        off = verificationType(off);
+                    }
+                }
+            }
+        }
+    }
+
+    private int verificationType(int off) {
+        switch (bytes[off]) {
+            case 7:// Object_variable_info
+                ref(off + 1);
+                return off + 3;
+            case 8:// Uninitialized_variable_info
+                return off + 3;
+            default:
+                return off + 1;
+        }
+    }
+
+    private int annotations(int off) {
+        int count = readU2(off);
+        for (off+=2; count > 0; --count) {
+            off = annotation(off);
+        }
+        return off;
+    }
+
+    private int annotation(int off) {
+        ref(off);// type_index
+        int count = readU2(off + 2);
+        for (off+=4; count > 0; --count) {
+            ref(off);// element_name_index
+            off = elementValue(off + 2);
+        }
+        return off;
+    }
+
+    private int elementValue(int off) {
+        switch (bytes[off]) {
+            case 'e':
+                ref(off + 1);
+                ref(off + 3);
+                return off + 5;
+            case '@':
+                return annotation(off + 1);
+            case '[':
+                int count = readU2(off + 1);
+                for (off+=3; count > 0; --count) {
+                    off = elementValue(off);
+                }
+                return off;
+            default:// const_value_index, class_info_index
+                ref(off + 1);
+                return off + 3;
+        }
+    }
+
+    private int typeAnnotation(int off) {
+        switch (bytes[off]) {
+            case 0x00:
+            case 0x01:
+            case 0x16:
+                off+=2;
+                break;
+            case 0x10:
+            case 0x11:
+            case 0x12:
+            case 0x17:
+            case 0x42:
+            case 0x43:
+            case 0x44:
+            case 0x45:
+            case 0x46:
+                off+=3;
+                break;
+            case 0x13:
+            case 0x14:
+            case 0x15:
+                off+=1;
+                break;
+            case 0x40:
+            case 0x41:
+                off+=(3 + readU2(off + 1) * 6);
+                break;
+            default:// 0x47 - 0x4B
+                off+=4;
+                break;
+        }
+        // type_path
+        return annotation(off + 1 + (bytes[off] & 0xFF) * 2);
+    }
+
+    private void module(int off) {
+        ref(off);// module_name_index
+        opt(off + 4);// module_version_index
+        int count = readU2(off + 6);
+        for (off+=8; count > 0; --count, off+=6) {// requires
+            ref(off);
+            opt(off + 4);
+        }
+        for (int item = 0; item < 2; ++item) {// exports, then opens
+            count = readU2(off);
+            for (off+=2; count > 0; --count) {
+                ref(off);
+                off = refs(off + 4);
+            }
+        }
+        off = refs(off);// uses
+        count = readU2(off);
+        for (off+=2; count > 0; --count) {// provides
+            ref(off);
+            off = refs(off + 2);
+        }
+    }
+
+    /**
+     * Visits a table of {@code u2} constant indexes.
+     *
+     * @param off point to the {@code u2} count of the table
+     * @return the end position of the table
+     */
+    private int refs(int off) {
+        int count = readU2(off);
+        for (off+=2; count > 0; --count, off+=2) {
+            ref(off);
+        }
+        return off;
+    }
+
+    /** Visits an optional {@code u2} constant index. */
+    private void opt(int off) {
+        if (readU2(off) != 0) {
+            ref(off);
+        }
+    }
+
+    protected final int readU2(int off) {
+        return BytesUtil.getUShort(bytes, off);
+    }
+}
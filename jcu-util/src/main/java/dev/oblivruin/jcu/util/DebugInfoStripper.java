@@ -0,0 +1,172 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.constant.Tag;
+import dev.oblivruin.jcu.internal.BytesUtil;
+
+/**
+ * Removes {@code LineNumberTable}, {@code LocalVariableTable}, {@code LocalVariableTypeTable}
+ * and {@code SourceDebugExtension} attributes, include those nested in {@code Code}.
+ * <p>
+ * Attributes are recognised by their name indexes, the constant pool and all other bytes
+ * are copied in bulk, only {@code attributes_count} and {@code attribute_length} of
+ * the enclosing structures are rewritten. Names of removed attributes are kept in the constant pool.
+ * <p>
+ * Usage: {@code DebugInfoStripper.strip(bytes)}
+ *
+ * @author OblivRuinDev
+ */
+public final class DebugInfoStripper {
+    private final byte[] bytes;
+    private final byte[] output;
+    /** Whether the attribute of the name index should be removed. */
+    private final boolean[] strip;
+    /** Name index of {@code Code}, or 0 if absent. */
+    private final int code;
+    private int pos;
+
+    private DebugInfoStripper(byte[] bytes, byte[] output, boolean[] strip, int code) {
+        this.bytes = bytes;
+        this.output = output;
+        this.strip = strip;
+        this.code = code;
+    }
+
+    /**
+     * Strip debug information of given class file.
+     *
+     * @param bytes trusted class file bytes
+     * @return the stripped class file, or {@code bytes} itself if there is nothing to strip
+     */
+    public static byte[] strip(byte[] bytes) {
+        return strip(new ClassFileReader(bytes));
+    }
+
+    /**
+     * Strip debug information of the class file of given reader.
+     *
+     * @param reader the class file reader
+     * @return the stripped class file, or {@code reader.bytes()} itself if there is nothing to strip
+     */
+    public static byte[] strip(ClassFileReader reader) {
+        byte[] bytes = reader.bytes();
+        int count = reader.count();
+        boolean[] strip = new boolean[count];
+        boolean any = false;
+        int code = 0;
+        for (int index = 1; index < count; ++index) {
+            int off = reader.offset(index);
+            int tag = bytes[off];
+            if (tag == Tag.Utf8) {
+                int len = reader.readU2(off + 1);
+                // lengths of Code, LineNumberTable, LocalVariableTable, SourceDebugExtension, LocalVariableTypeTable
+                if (len == 4 || len == 15 || len == 18 || len == 20 || len == 22) {
+                    switch (AttributeKinds.kindOf(bytes, off + 3, len)) {
+                        case AttributeKinds.Code:
+                            code = index;
+                            break;
+                        case AttributeKinds.LineNumberTable:
+                        case AttributeKinds.LocalVariableTable:
+                        case AttributeKinds.LocalVariableTypeTable:
+                        case AttributeKinds.SourceDebugExtension:
+                            strip[index] = true;
+                            any = true;
+                            break;
+                    }
+                }
+            } else if (tag == Tag.Long || tag == Tag.Double) {
+                ++index;
+            }
+        }
+        if (!any) {
+            return bytes;
+        }
+        DebugInfoStripper stripper = new DebugInfoStripper(bytes, new byte[bytes.length], strip, code);
+        int len = stripper.run(reader.fieldPos());
+        byte[] output = stripper.output;
+        if (len == output.length) {
+            return output;// names are present but never used
+        }
+        byte[] ret = new byte[len];
+        System.arraycopy(output, 0, ret, 0, len);
+        return ret;
+    }
+
+    /**
+     * @param off point to {@code fields_count}
+     * @return the length of output
+     */
+    private int run(int off) {
+        byte[] bytes = this.bytes;
+        System.arraycopy(bytes, 0, output, 0, off);
+        pos = off;
+        for (int member = 0; member < 2; ++member) {// fields, then methods
+            int count = BytesUtil.getUShort(bytes, off);
+            copy(off, 2);
+            off+=2;
+            for (; count > 0; --count) {
+                copy(off, 6);// access_flags, name_index, descriptor_index
+                off = attributes(off + 6);
+            }
+        }
+        attributes(off);
+        return pos;
+    }
+
+    /**
+     * Copy an attributes structure without stripped attributes.
+     *
+     * @param off point to {@code attributes_count}
+     * @return the end position of the structure in input
+     */
+    private int attributes(int off) {
+        byte[] bytes = this.bytes;
+        int countPos = pos;
+        int count = BytesUtil.getUShort(bytes, off);
+        int kept = count;
+        pos+=2;
+        off+=2;
+        for (; count > 0; --count) {
+            int name = BytesUtil.getUShort(bytes, off);
+            int len = BytesUtil.getInt(bytes, off + 2);
+            if (strip[name]) {
+                --kept;
+            } else if (name == code) {
+                int start = pos;
+                // attribute_name_index, attribute_length, max_stack, max_locals, code_length, code
+                int head = 14 + BytesUtil.getInt(bytes, off + 10);
+                // exception_table_length, exception_table
+                head+=(2 + BytesUtil.getUShort(bytes, off + head)*8);
+                copy(off, head);
+                attributes(off + head);
+                BytesUtil.setInt(output, start + 2, pos - start - 6);
+            } else {
+                copy(off, len + 6);
+            }
+            off+=(len + 6);
+        }
+        BytesUtil.setUShort(output, countPos, kept);
+        return off;
+    }
+
+    private void copy(int off, int len) {
+        System.arraycopy(bytes, off, output, pos, len);
+        pos+=len;
+    }
+}
@@ -0,0 +1,313 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.IllegalDescException;
+import dev.oblivruin.jcu.builds.api.perf.AllocationBudget;
+
+/**
+ * A cursor over the raw bytes of a field or method descriptor, no {@link String} is created.
+ * <br>
+ * The kind of a type is its first descriptor char: one of {@code BCDFIJSZV} for a primitive type or {@code void},
+ * {@code 'L'} for a class type and {@code '['} for an array type.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * DescriptorCursor cursor = new DescriptorCursor().reset(reader, descIndex);
+ * while (cursor.next()) {
+ *     if (cursor.elementKind() == 'L') {
+ *         table.intern(cursor.bytes(), cursor.nameOffset(), cursor.nameLength());
+ *     }
+ * }
+ * cursor.returnType();
+ * }</pre>
+ * An instance can be reset and reused, it's not thread-safe.
+ *
+ * @see ReferencedTypes
+ * @author OblivRuinDev
+ */
+public final class DescriptorCursor {
+    private byte[] bytes;
+    /** Position of the next type, and the end of the descriptor. */
+    private int pos, end;
+    /** Position of the return type of a method descriptor, or -1 for a field descriptor. */
+    private int ret;
+    private int start, dimensions, nameOffset, nameLength;
+    private byte elementKind;
+
+    /**
+     * Start a descriptor from a {@code CONSTANT_Utf8_info}.
+     *
+     * @param reader the class file reader
+     * @param index the index of the descriptor
+     * @return this
+     */
+    public DescriptorCursor reset(ClassFileReader reader, int index) {
+        int off = reader.offset(index);
+        return reset(reader.bytes(), off + 3, reader.readU2(off + 1));
+    }
+
+    /**
+     * Start a descriptor from modified UTF-8 bytes.
+     *
+     * @param bytes the bytes
+     * @param off the start position of the descriptor
+     * @param len the length of the descriptor
+     * @return this
+     */
+    public DescriptorCursor reset(byte[] bytes, int off, int len) {
+        this.bytes = bytes;
+        this.end = off + len;
+        if (len != 0 && bytes[off] == '(') {
+            this.pos = off + 1;
+            this.ret = close(bytes, off + 1, end) + 1;
+        } else {
+            this.pos = off;
+            this.ret = -1;
+        }
+        this.start = -1;
+        return this;
+    }
+
+    /**
+     * Move to the next parameter type of a method descriptor, or to the type of a field descriptor.
+     *
+     * @return false if there is no more parameter
+     */
+    @AllocationBudget(0)
+    public boolean next() {
+        int limit = ret < 0 ? end : ret - 1;
+        if (pos >= limit) {
+            return false;
+        }
+        pos = parse(pos, limit, false);
+        return true;
+    }
+
+    /**
+     * Move to the return type of a method descriptor, the remaining parameters are skipped.
+     */
+    @AllocationBudget(0)
+    public void returnType() {
+        if (ret < 0) {
+            throw new IllegalDescException("Not a method descriptor");
+        }
+        pos = parse(ret, end, true);
+    }
+
+    /**
+     * @param result whether it's the return type, the only place {@code void} is allowed
+     */
+    private int parse(int off, int limit, boolean result) {
+        byte[] bytes = this.bytes;
+        start = off;
+        int dims = 0;
+        while (off < limit && bytes[off] == '[') {
+            ++dims;
+            ++off;
+        }
+        if (off >= limit) {
+            throw new IllegalDescException("Missing element type");
+        }
+        dimensions = dims;
+        byte kind = elementKind = bytes[off];
+        switch (kind) {
+            case 'L': {
+                int name = ++off;
+                while (off < limit && bytes[off] != ';') {
+                    ++off;
+                }
+                if (off >= limit) {
+                    throw new IllegalDescException("Missing ';'");
+                }
+                nameOffset = name;
+                nameLength = off - name;
+                return off + 1;
+            }
+            case 'V':
+                if (dims != 0) {
+                    throw new IllegalDescException("Array of void");
+                } else if (!result) {
+                    throw new IllegalDescException("Void is only allowed as the return type");
+                }
+                return primitive(off);
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+                return primitive(off);
+            default:
+                throw new IllegalDescException("Illegal type char: " + (char) kind);
+        }
+    }
+
+    private int primitive(int off) {
+        nameOffset = -1;
+        nameLength = 0;
+        return off + 1;
+    }
+
+    /**
+     * Skip a type without validating primitive chars.
+     *
+     * @param off the start position of the type
+     * @param limit the end of the descriptor
+     * @return the end position of the type
+     */
+    private static int skip(byte[] bytes, int off, int limit) {
+        while (off < limit && bytes[off] == '[') {
+            ++off;
+        }
+        if (off >= limit) {
+            throw new IllegalDescException("Missing element type");
+        }
+        if (bytes[off] == 'L') {
+            do {
+                ++off;
+            } while (off < limit && bytes[off] != ';');
+            if (off >= limit) {
+                throw new IllegalDescException("Missing ';'");
+            }
+        }
+        return off + 1;
+    }
+
+    /**
+     * Find the {@code ')'} closing the parameters, class names may contain {@code ')'} so parameters are skipped.
+     *
+     * @param off the position of the first parameter
+     * @param limit the end of the descriptor
+     * @return the position of {@code ')'}
+     */
+    private static int close(byte[] bytes, int off, int limit) {
+        while (off < limit && bytes[off] != ')') {
+            off = skip(bytes, off, limit);
+        }
+        if (off >= limit) {
+            throw new IllegalDescException("Missing ')'");
+        }
+        return off;
+    }
+
+    /** @return the descriptor bytes */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /** @return the kind of current type, {@code '['} for an array */
+    public int kind() {
+        return dimensions != 0 ? '[' : elementKind;
+    }
+
+    /** @return the kind of the element type of current array, or of current type if it's not an array */
+    public int elementKind() {
+        return elementKind;
+    }
+
+    /** @return dimensions of current array, 0 if it's not an array */
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /** @return count of local variable or operand stack slots of current type, 2 for {@code long} and {@code double} */
+    public int slots() {
+        return slots(kind());
+    }
+
+    /** @return the start position of current type in {@link #bytes()} */
+    public int offset() {
+        return start;
+    }
+
+    /** @return the length of current type in bytes */
+    public int length() {
+        return pos - start;
+    }
+
+    /**
+     * @return the start position of the internal name of current class type, or of the element type of current array,
+     * -1 if it's primitive
+     */
+    public int nameOffset() {
+        return nameOffset;
+    }
+
+    /** @return the length of the internal name, 0 if it's primitive */
+    public int nameLength() {
+        return nameLength;
+    }
+
+    /**
+     * @param kind the kind of a type
+     * @return count of local variable or operand stack slots
+     */
+    public static int slots(int kind) {
+        return kind == 'J' || kind == 'D' ? 2 : kind == 'V' ? 0 : 1;
+    }
+
+    /**
+     * Count slots of parameters, e.g. to compute {@code max_locals} of a method.
+     *
+     * @param reader the class file reader
+     * @param descIndex the index of a method descriptor
+     * @return count of slots, without {@code this}
+     */
+    @AllocationBudget(0)
+    public static int argumentSlots(ClassFileReader reader, int descIndex) {
+        int off = reader.offset(descIndex);
+        byte[] bytes = reader.bytes();
+        int len = reader.readU2(off + 1);
+        if (len == 0 || bytes[off + 3] != '(') {
+            throw new IllegalDescException("Not a method descriptor");
+        }
+        int slots = 0;
+        for (int pos = off + 4, end = off + 3 + len; ; ) {
+            if (pos >= end) {
+                throw new IllegalDescException("Missing ')'");
+            }
+            byte b = bytes[pos];
+            if (b == ')') {
+                return slots;
+            } else if (b == 'V') {
+                throw new IllegalDescException("Void is only allowed as the return type");
+            }
+            slots+=(b == 'J' || b == 'D' ? 2 : 1);
+            pos = skip(bytes, pos, end);
+        }
+    }
+
+    /**
+     * Compute the change of operand stack slots by a method invocation.
+     *
+     * @param reader the class file reader
+     * @param descIndex the index of a method descriptor
+     * @param receiver whether an object reference is popped, i.e. not {@code invokestatic} or {@code invokedynamic}
+     * @return slots of the return value minus slots of arguments
+     */
+    public static int invokeStackEffect(ClassFileReader reader, int descIndex, boolean receiver) {
+        int off = reader.offset(descIndex);
+        byte[] bytes = reader.bytes();
+        int last = off + 2 + reader.readU2(off + 1);
+        int ret = bytes[last] == ';' || bytes[last - 1] == '[' ? 1 : slots(bytes[last]);
+        return ret - argumentSlots(reader, descIndex) - (receiver ? 1 : 0);
+    }
+}
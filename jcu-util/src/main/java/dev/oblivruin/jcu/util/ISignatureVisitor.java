@@ -0,0 +1,115 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+/**
+ * Receives events of a generic signature from {@link SignatureReader}, all methods do nothing by default.
+ * <br>
+ * Names are given as {@code (offset, length)} ranges of the bytes passed to the reader, no {@link String} is created.
+ * A type is visited by exactly one of {@link #visitBaseType(int)}, {@link #visitTypeVariable(int, int)},
+ * {@link #visitArrayType()} followed by the component type, or {@link #visitClassType(int, int)}
+ * followed by its type arguments and inner classes and then {@link #visitEnd()}.
+ * <p>
+ * Events of {@code Map<K, List<? extends V>>.Entry[]} as a field signature:
+ * <pre>{@code
+ * visitArrayType()
+ * visitClassType("java/util/Map")
+ *   visitTypeArgument('=')  visitTypeVariable("K")
+ *   visitTypeArgument('=')  visitClassType("java/util/List")
+ *                             visitTypeArgument('+')  visitTypeVariable("V")
+ *                           visitEnd()
+ * visitInnerClassType("Entry")
+ * visitEnd()
+ * }</pre>
+ *
+ * @author OblivRuinDev
+ */
+public interface ISignatureVisitor {
+    /**
+     * Visits a formal type parameter, followed by its bounds.
+     *
+     * @param off the start position of the name
+     * @param len the length of the name
+     */
+    default void visitFormalTypeParameter(int off, int len) {}
+
+    /** Visits the class bound of the last formal type parameter, followed by a type. */
+    default void visitClassBound() {}
+
+    /** Visits an interface bound of the last formal type parameter, followed by a type. */
+    default void visitInterfaceBound() {}
+
+    /** Visits the superclass of a class signature, followed by a type. */
+    default void visitSuperclass() {}
+
+    /** Visits a superinterface of a class signature, followed by a type. */
+    default void visitInterface() {}
+
+    /** Visits a parameter of a method signature, followed by a type. */
+    default void visitParameterType() {}
+
+    /** Visits the result of a method signature, followed by a type. */
+    default void visitReturnType() {}
+
+    /** Visits a thrown type of a method signature, followed by a type. */
+    default void visitExceptionType() {}
+
+    /**
+     * Visits a primitive type or {@code void}.
+     *
+     * @param kind one of {@code BCDFIJSZV}
+     */
+    default void visitBaseType(int kind) {}
+
+    /**
+     * Visits a type variable.
+     *
+     * @param off the start position of the name
+     * @param len the length of the name
+     */
+    default void visitTypeVariable(int off, int len) {}
+
+    /** Visits an array type, followed by the component type. */
+    default void visitArrayType() {}
+
+    /**
+     * Visits a class type, followed by its type arguments, inner classes and {@link #visitEnd()}.
+     *
+     * @param off the start position of the internal name, e.g. {@code java/util/Map}
+     * @param len the length of the internal name
+     */
+    default void visitClassType(int off, int len) {}
+
+    /**
+     * Visits an inner class of the last class type, followed by its type arguments.
+     *
+     * @param off the start position of the simple name, e.g. {@code Entry}
+     * @param len the length of the simple name
+     */
+    default void visitInnerClassType(int off, int len) {}
+
+    /**
+     * Visits a type argument of the last class type or inner class.
+     *
+     * @param wildcard {@code '*'} for an unbounded wildcard, which is not followed by a type,
+     *                 otherwise {@code '+'} (extends), {@code '-'} (super) or {@code '='} (exact), followed by a type
+     */
+    default void visitTypeArgument(int wildcard) {}
+
+    /** Signals the end of a class type. */
+    default void visitEnd() {}
+}
@@ -0,0 +1,123 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.misc.Metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Exports {@link Metrics} to JMX, each counter is a read-only {@code long} attribute named by {@link Metrics#name(int)},
+ * and the operation {@code reset} resets all counters.
+ * <pre>{@code
+ * JmxMetrics.register();// dev.oblivruin.jcu:type=Metrics
+ * }</pre>
+ * Counters are only collected when {@link Metrics#ENABLED}, otherwise all attributes stay 0.
+ *
+ * @author OblivRuinDev
+ */
+public final class JmxMetrics implements DynamicMBean {
+    /** The default object name. */
+    public static final String NAME = "dev.oblivruin.jcu:type=Metrics";
+
+    private final MBeanInfo info;
+
+    private JmxMetrics() {
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[Metrics.count()];
+        for (int counter = 0; counter < attributes.length; ++counter) {
+            attributes[counter] = new MBeanAttributeInfo(Metrics.name(counter), "long", Metrics.name(counter),
+                    true, false, false);
+        }
+        MBeanOperationInfo[] operations = {
+                new MBeanOperationInfo("reset", "Reset all counters", new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION)
+        };
+        info = new MBeanInfo(JmxMetrics.class.getName(), "JCU metrics, enabled: " + Metrics.ENABLED,
+                attributes, null, operations, null);
+    }
+
+    /**
+     * Register to the platform MBean server with {@link #NAME}.
+     *
+     * @return the object name
+     * @throws JMException if the name is already registered
+     */
+    public static ObjectName register() throws JMException {
+        return register(ManagementFactory.getPlatformMBeanServer(), new ObjectName(NAME));
+    }
+
+    /**
+     * @param server the MBean server
+     * @param name the object name
+     * @return the object name
+     * @throws JMException if the name is already registered
+     */
+    public static ObjectName register(MBeanServer server, ObjectName name) throws JMException {
+        return server.registerMBean(new JmxMetrics(), name).getObjectName();
+    }
+
+    private static int counter(String name) throws AttributeNotFoundException {
+        for (int counter = 0, count = Metrics.count(); counter < count; ++counter) {
+            if (Metrics.name(counter).equals(name)) {
+                return counter;
+            }
+        }
+        throw new AttributeNotFoundException(name);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        return Metrics.get(counter(attribute));
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList(attributes.length);
+        for (String name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException ignored) {
+                // absent attributes are omitted, as specified
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (actionName.equals("reset") && (params == null || params.length == 0)) {
+            Metrics.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+}
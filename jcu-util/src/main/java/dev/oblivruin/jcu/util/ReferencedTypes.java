@@ -0,0 +1,259 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.misc.IntArray;
+
+import java.util.Arrays;
+
+import static dev.oblivruin.jcu.constant.Tag.*;
+
+/**
+ * Extracts internal names of referenced types by scanning {@code CONSTANT_Utf8_info} bytes in place.
+ * <p>
+ * Sources:
+ * <ul>
+ *     <li>{@code CONSTANT_Class_info}, including element types of array classes</li>
+ *     <li>descriptors of {@code CONSTANT_NameAndType_info} and {@code CONSTANT_MethodType_info}</li>
+ *     <li>descriptors of fields and methods</li>
+ *     <li>{@code Signature} attributes of the class, fields and methods</li>
+ * </ul>
+ * For a nested class type in a signature (e.g. {@code LOuter<TT;>.Inner;}), only the outermost class is reported.
+ * Types only referenced by annotations or local variable tables are not reported.
+ * <p>
+ * An instance keeps scratch arrays between scans, so it's not thread-safe and should be reused per thread.
+ *
+ * @author OblivRuinDev
+ */
+public final class ReferencedTypes {
+    /** Stamps indexed by constant index, to scan a utf8 entry once per class. */
+    private int[] scanned = new int[256];
+    /** Stamps indexed by type id, to report a type once per class. */
+    private int[] reported = new int[256];
+    private int epoch = 0;
+
+    private byte[] bytes;
+    private IntArray out;
+    private TypeTable table;
+
+    /**
+     * Append {@code (offset, length)} pairs of referenced internal names, a type may be reported more than once.
+     *
+     * @param reader the class file reader
+     * @param out receives the byte ranges in {@code reader.bytes()}
+     */
+    public void ranges(ClassFileReader reader, IntArray out) {
+        scan(reader, out, null);
+    }
+
+    /**
+     * Append ids of referenced internal names, each type is reported once.
+     *
+     * @param reader the class file reader
+     * @param table the table interning names
+     * @param out receives ids from {@code table}
+     */
+    public void ids(ClassFileReader reader, TypeTable table, IntArray out) {
+        scan(reader, out, table);
+    }
+
+    private void scan(ClassFileReader reader, IntArray out, TypeTable table) {
+        this.bytes = reader.bytes();
+        this.out = out;
+        this.table = table;
+        int count = reader.count();
+        if (scanned.length < count) {
+            scanned = new int[Math.max(count, scanned.length * 2)];
+        }
+        if (++epoch == 0) {// overflow
+            Arrays.fill(scanned, 0);
+            Arrays.fill(reported, 0);
+            epoch = 1;
+        }
+        int signature = 0;
+        for (int index = 1; index < count; ++index) {
+            int off = reader.offset(index);
+            switch (bytes[off]) {
+                case Class: {
+                    int name = reader.readU2(off + 1);
+                    int pos = reader.offset(name);
+                    int len = reader.readU2(pos + 1);
+                    if (len != 0 && bytes[pos + 3] == '[') {
+                        utf8(reader, name);
+                    } else {
+                        report(pos + 3, len);
+                    }
+                    break;
+                }
+                case NameAndType:
+                    utf8(reader, reader.readU2(off + 3));
+                    break;
+                case MethodType:
+                    utf8(reader, reader.readU2(off + 1));
+                    break;
+                case Utf8:
+                    int len = reader.readU2(off + 1);
+                    if (len == 9 && signature == 0 && AttributeKinds.kindOf(bytes, off + 3, len) == AttributeKinds.Signature) {
+                        signature = index;
+                    }
+                    break;
+                case Long:
+                case Double:
+                    ++index;
+                    break;
+            }
+        }
+        int off = reader.fieldPos();
+        for (int member = 0; member < 2; ++member) {// fields, then methods
+            int n = reader.readU2(off);
+            for (off+=2; n > 0; --n) {
+                utf8(reader, reader.readU2(off + 4));
+                off = attributes(reader, off + 6, signature);
+            }
+        }
+        attributes(reader, off, signature);
+        this.bytes = null;
+        this.out = null;
+        this.table = null;
+    }
+
+    private int attributes(ClassFileReader reader, int off, int signature) {
+        int count = reader.readU2(off);
+        for (off+=2; count > 0; --count) {
+            if (signature != 0 && reader.readU2(off) == signature) {
+                utf8(reader, reader.readU2(off + 6));
+            }
+            off+=(6 + reader.readInt(off + 2));
+        }
+        return off;
+    }
+
+    private void utf8(ClassFileReader reader, int index) {
+        if (scanned[index] == epoch) {
+            return;
+        }
+        scanned[index] = epoch;
+        int off = reader.offset(index);
+        int start = off + 3;
+        int end = start + reader.readU2(off + 1);
+        int pos = start;
+        if (pos < end && bytes[pos] == '<') {
+            pos = formals(pos + 1, end);
+        }
+        while (pos < end) {
+            pos = type(pos, end);
+        }
+    }
+
+    /**
+     * Scans a descriptor or signature element, unknown characters are skipped.
+     *
+     * @return the position after the element
+     */
+    private int type(int pos, int end) {
+        byte[] bytes = this.bytes;
+        switch (bytes[pos]) {
+            case 'L':
+                return classType(pos + 1, end);
+            case 'T':// type variable
+                return skipTo(pos + 1, end, ';') + 1;
+            case '[':
+            case '+':
+            case '-':
+            case '^':
+                return pos + 1 < end ? type(pos + 1, end) : end;
+            default:// primitive types, '*', '(', ')', 'V'
+                return pos + 1;
+        }
+    }
+
+    private int classType(int pos, int end) {
+        byte[] bytes = this.bytes;
+        int start = pos;
+        pos = skipName(pos, end);
+        report(start, pos - start);
+        while (pos < end) {
+            byte b = bytes[pos];
+            if (b == ';') {
+                return pos + 1;
+            } else if (b == '<') {
+                for (++pos; pos < end && bytes[pos] != '>'; ) {
+                    pos = type(pos, end);
+                }
+                ++pos;
+            } else {// '.', nested class
+                pos = skipName(pos + 1, end);
+            }
+        }
+        return end;
+    }
+
+    private int formals(int pos, int end) {
+        byte[] bytes = this.bytes;
+        while (pos < end && bytes[pos] != '>') {
+            pos = skipTo(pos, end, ':');
+            while (pos < end && bytes[pos] == ':') {
+                byte b = bytes[++pos];
+                if (b == 'L' || b == 'T' || b == '[') {
+                    pos = type(pos, end);
+                }
+            }
+        }
+        return pos + 1;
+    }
+
+    private int skipName(int pos, int end) {
+        byte[] bytes = this.bytes;
+        for (; pos < end; ++pos) {
+            byte b = bytes[pos];
+            if (b == ';' || b == '<' || b == '.') {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private int skipTo(int pos, int end, char c) {
+        byte[] bytes = this.bytes;
+        while (pos < end && bytes[pos] != c) {
+            ++pos;
+        }
+        return pos;
+    }
+
+    private void report(int off, int len) {
+        IntArray out = this.out;
+        TypeTable table = this.table;
+        if (table == null) {
+            out.ensureFree(2);
+            out.add0(off);
+            out.add0(len);
+            return;
+        }
+        int id = table.intern(bytes, off, len);
+        if (id >= reported.length) {
+            int[] grown = new int[Math.max(id + 1, reported.length * 2)];
+            System.arraycopy(reported, 0, grown, 0, reported.length);
+            reported = grown;
+        }
+        if (reported[id] != epoch) {
+            reported[id] = epoch;
+            out.add(id);
+        }
+    }
+}
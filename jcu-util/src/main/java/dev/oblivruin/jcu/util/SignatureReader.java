@@ -0,0 +1,268 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.IllegalDescException;
+import dev.oblivruin.jcu.builds.api.perf.AllocationBudget;
+
+/**
+ * A streaming parser of the {@code Signature} attribute grammars (JVMS 4.7.9.1), which reads raw utf8 bytes
+ * and reports events with positions to an {@link ISignatureVisitor}, nothing is allocated.
+ * <br>
+ * The kind of signature must be known, as a class signature and a field signature may both start with {@code 'L'}:
+ * <pre>{@code
+ * SignatureReader.acceptClass(reader, signatureIndex, visitor);
+ * }</pre>
+ *
+ * @see DescriptorCursor
+ * @author OblivRuinDev
+ */
+public final class SignatureReader {
+    private SignatureReader() {}
+
+    /**
+     * Parse a class signature, {@code TypeParameters? SuperclassSignature SuperinterfaceSignature*}.
+     *
+     * @param reader the class file reader, positions are in {@code reader.bytes()}
+     * @param index the index of a {@code CONSTANT_Utf8_info}
+     * @param visitor the visitor
+     */
+    @AllocationBudget(0)
+    public static void acceptClass(ClassFileReader reader, int index, ISignatureVisitor visitor) {
+        int off = reader.offset(index);
+        acceptClass(reader.bytes(), off + 3, reader.readU2(off + 1), visitor);
+    }
+
+    /**
+     * @see #acceptClass(ClassFileReader, int, ISignatureVisitor)
+     */
+    public static void acceptClass(byte[] bytes, int off, int len, ISignatureVisitor visitor) {
+        int end = off + len;
+        int pos = typeParameters(bytes, off, end, visitor);
+        visitor.visitSuperclass();
+        expect(bytes, pos, end, 'L');
+        pos = classType(bytes, pos + 1, end, visitor);
+        while (pos < end) {
+            visitor.visitInterface();
+            expect(bytes, pos, end, 'L');
+            pos = classType(bytes, pos + 1, end, visitor);
+        }
+    }
+
+    /**
+     * Parse a method signature, {@code TypeParameters? ( JavaTypeSignature* ) Result ThrowsSignature*}.
+     *
+     * @param reader the class file reader, positions are in {@code reader.bytes()}
+     * @param index the index of a {@code CONSTANT_Utf8_info}
+     * @param visitor the visitor
+     */
+    @AllocationBudget(0)
+    public static void acceptMethod(ClassFileReader reader, int index, ISignatureVisitor visitor) {
+        int off = reader.offset(index);
+        acceptMethod(reader.bytes(), off + 3, reader.readU2(off + 1), visitor);
+    }
+
+    /**
+     * @see #acceptMethod(ClassFileReader, int, ISignatureVisitor)
+     */
+    public static void acceptMethod(byte[] bytes, int off, int len, ISignatureVisitor visitor) {
+        int end = off + len;
+        int pos = typeParameters(bytes, off, end, visitor);
+        expect(bytes, pos, end, '(');
+        for (++pos; pos < end && bytes[pos] != ')'; ) {
+            visitor.visitParameterType();
+            pos = javaType(bytes, pos, end, visitor);
+        }
+        expect(bytes, pos, end, ')');
+        visitor.visitReturnType();
+        if (++pos < end && bytes[pos] == 'V') {
+            visitor.visitBaseType('V');
+            ++pos;
+        } else {
+            pos = javaType(bytes, pos, end, visitor);
+        }
+        while (pos < end) {
+            expect(bytes, pos, end, '^');
+            if (++pos < end && bytes[pos] == '[') {
+                throw new IllegalDescException("Array in throws signature");
+            }
+            visitor.visitExceptionType();
+            pos = referenceType(bytes, pos, end, visitor);
+        }
+    }
+
+    /**
+     * Parse a field signature, which is a {@code ReferenceTypeSignature}.
+     *
+     * @param reader the class file reader, positions are in {@code reader.bytes()}
+     * @param index the index of a {@code CONSTANT_Utf8_info}
+     * @param visitor the visitor
+     */
+    @AllocationBudget(0)
+    public static void acceptField(ClassFileReader reader, int index, ISignatureVisitor visitor) {
+        int off = reader.offset(index);
+        acceptField(reader.bytes(), off + 3, reader.readU2(off + 1), visitor);
+    }
+
+    /**
+     * @see #acceptField(ClassFileReader, int, ISignatureVisitor)
+     */
+    public static void acceptField(byte[] bytes, int off, int len, ISignatureVisitor visitor) {
+        int end = off + len;
+        if (referenceType(bytes, off, end, visitor) != end) {
+            throw new IllegalDescException("Trailing bytes of field signature");
+        }
+    }
+
+    private static int typeParameters(byte[] bytes, int pos, int end, ISignatureVisitor visitor) {
+        if (pos >= end || bytes[pos] != '<') {
+            return pos;
+        }
+        if (++pos < end && bytes[pos] == '>') {
+            throw new IllegalDescException("Empty type parameters");
+        }
+        for (; pos < end && bytes[pos] != '>'; ) {
+            int name = pos;
+            while (pos < end && bytes[pos] != ':') {
+                ++pos;
+            }
+            expect(bytes, pos, end, ':');
+            visitor.visitFormalTypeParameter(name, pos - name);
+            byte b = ++pos < end ? bytes[pos] : 0;
+            if (b == 'L' || b == 'T' || b == '[') {// class bound is optional
+                visitor.visitClassBound();
+                pos = referenceType(bytes, pos, end, visitor);
+            }
+            while (pos < end && bytes[pos] == ':') {
+                visitor.visitInterfaceBound();
+                pos = referenceType(bytes, pos + 1, end, visitor);
+            }
+        }
+        expect(bytes, pos, end, '>');
+        return pos + 1;
+    }
+
+    /**
+     * Parse a {@code JavaTypeSignature}, a base type or a {@code ReferenceTypeSignature}.
+     *
+     * @return the position after the type
+     */
+    private static int javaType(byte[] bytes, int pos, int end, ISignatureVisitor visitor) {
+        if (pos >= end) {
+            throw new IllegalDescException("Missing type");
+        }
+        byte b = bytes[pos];
+        switch (b) {
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+                visitor.visitBaseType(b);
+                return pos + 1;
+            default:
+                return referenceType(bytes, pos, end, visitor);
+        }
+    }
+
+    /**
+     * Parse a {@code ReferenceTypeSignature}, a class type, a type variable or an array type.
+     *
+     * @return the position after the type
+     */
+    private static int referenceType(byte[] bytes, int pos, int end, ISignatureVisitor visitor) {
+        if (pos >= end) {
+            throw new IllegalDescException("Missing type");
+        }
+        byte b = bytes[pos];
+        switch (b) {
+            case '[':
+                visitor.visitArrayType();
+                return javaType(bytes, pos + 1, end, visitor);
+            case 'T': {
+                int name = ++pos;
+                while (pos < end && bytes[pos] != ';') {
+                    ++pos;
+                }
+                expect(bytes, pos, end, ';');
+                visitor.visitTypeVariable(name, pos - name);
+                return pos + 1;
+            }
+            case 'L':
+                return classType(bytes, pos + 1, end, visitor);
+            default:
+                throw new IllegalDescException("Illegal type char: " + (char) b);
+        }
+    }
+
+    private static int classType(byte[] bytes, int pos, int end, ISignatureVisitor visitor) {
+        boolean inner = false;
+        while (true) {
+            int name = pos;
+            byte b = 0;
+            while (pos < end && (b = bytes[pos]) != '<' && b != '.' && b != ';') {
+                ++pos;
+            }
+            if (pos >= end) {
+                throw new IllegalDescException("Missing ';'");
+            }
+            if (inner) {
+                visitor.visitInnerClassType(name, pos - name);
+            } else {
+                visitor.visitClassType(name, pos - name);
+                inner = true;
+            }
+            if (b == '<') {
+                if (++pos < end && bytes[pos] == '>') {
+                    throw new IllegalDescException("Empty type arguments");
+                }
+                for (; pos < end && (b = bytes[pos]) != '>'; ) {
+                    if (b == '*') {
+                        visitor.visitTypeArgument('*');
+                        ++pos;
+                    } else if (b == '+' || b == '-') {
+                        visitor.visitTypeArgument(b);
+                        pos = referenceType(bytes, pos + 1, end, visitor);
+                    } else {
+                        visitor.visitTypeArgument('=');
+                        pos = referenceType(bytes, pos, end, visitor);
+                    }
+                }
+                expect(bytes, pos, end, '>');
+                b = ++pos < end ? bytes[pos] : 0;
+            }
+            if (b == ';') {
+                visitor.visitEnd();
+                return pos + 1;
+            } else if (b == '.') {
+                ++pos;
+            } else {
+                throw new IllegalDescException("Missing ';'");
+            }
+        }
+    }
+
+    private static void expect(byte[] bytes, int pos, int end, char c) {
+        if (pos >= end || bytes[pos] != c) {
+            throw new IllegalDescException("Missing '" + c + '\'');
+        }
+    }
+}
@@ -0,0 +1,180 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.internal.BytesUtil;
+import dev.oblivruin.jcu.internal.Strings;
+import dev.oblivruin.jcu.misc.ByteArray;
+
+/**
+ * Interns internal names as dense int ids (0, 1, 2, ...), keyed by their modified UTF-8 bytes.
+ * <br>
+ * Names are copied into a shared byte arena, no {@link String} is created when interning.
+ * Not thread-safe.
+ *
+ * @see ReferencedTypes
+ * @author OblivRuinDev
+ */
+public final class TypeTable {
+    private byte[] arena = new byte[1 << 14];
+    private int arenaLen = 0;
+    /** Arena offsets and lengths indexed by id. */
+    private int[] starts = new int[256], lens = new int[256];
+    private int[] hashes = new int[256];
+    /** Open addressing slots, id + 1 or 0 if empty. */
+    private int[] slots = new int[512];
+    private int size = 0;
+
+    /**
+     * @return count of interned names
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Intern a name.
+     *
+     * @param bytes modified UTF-8 bytes
+     * @param off the start position of the name
+     * @param len the length of the name
+     * @return the id of the name
+     */
+    public int intern(byte[] bytes, int off, int len) {
+        int hash = hash(bytes, off, len);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                id = add(bytes, off, len, hash);
+                slots[slot] = id + 1;
+                if (size * 2 > slots.length) {
+                    rehash();
+                }
+                return id;
+            }
+            if (hashes[id] == hash && equals(id, bytes, off, len)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Intern a name given as a {@link String}, usually used to prepare names to compare with.
+     *
+     * @param name the internal name, e.g. {@code java/lang/Object}
+     * @return the id of the name
+     */
+    public int intern(String name) {
+        ByteArray array = new ByteArray(name.length());
+        Strings.write(name, array);
+        return intern(array.data, 0, array.length);
+    }
+
+    /**
+     * Find a name without interning it.
+     *
+     * @return the id of the name, or -1 if absent
+     */
+    public int find(byte[] bytes, int off, int len) {
+        int hash = hash(bytes, off, len);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (hashes[id] == hash && equals(id, bytes, off, len)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Decode a name, for reporting only.
+     *
+     * @param id the id of the name
+     * @return the name
+     */
+    public String name(int id) {
+        byte[] arena = this.arena;
+        char[] chars = new char[lens[id]];
+        int pointer = 0;
+        for (int off = starts[id], end = off + lens[id]; off < end; ++off) {
+            int b = arena[off];
+            if ((b & 0b1000_0000) == 0) {
+                chars[pointer++] = (char) b;
+            } else if ((b & 0b0010_0000) == 0) {// 2 bytes
+                chars[pointer++] = (char) (((b & 0b0001_1111) << 6) | (arena[++off] & 0b0011_1111));
+            } else {// 3 bytes
+                chars[pointer++] = (char) (((b & 0b0000_1111) << 12) |
+                        ((arena[++off] & 0b0011_1111) << 6) | (arena[++off] & 0b0011_1111));
+            }
+        }
+        return new String(chars, 0, pointer);
+    }
+
+    private int add(byte[] bytes, int off, int len, int hash) {
+        if (arenaLen + len > arena.length) {
+            byte[] grown = new byte[Math.max(arena.length * 2, arenaLen + len)];
+            System.arraycopy(arena, 0, grown, 0, arenaLen);
+            arena = grown;
+        }
+        if (size == starts.length) {
+            starts = grow(starts);
+            lens = grow(lens);
+            hashes = grow(hashes);
+        }
+        System.arraycopy(bytes, off, arena, arenaLen, len);
+        int id = size++;
+        starts[id] = arenaLen;
+        lens[id] = len;
+        hashes[id] = hash;
+        arenaLen+=len;
+        return id;
+    }
+
+    private void rehash() {
+        int[] slots = this.slots = new int[this.slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; ++id) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private boolean equals(int id, byte[] bytes, int off, int len) {
+        return lens[id] == len && BytesUtil.equals(arena, starts[id], bytes, off, len);
+    }
+
+    private static int[] grow(int[] array) {
+        int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static int hash(byte[] bytes, int off, int len) {
+        int h = 0x811C9DC5;
+        for (int end = off + len; off < end; ++off) {
+            h = (h ^ bytes[off]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
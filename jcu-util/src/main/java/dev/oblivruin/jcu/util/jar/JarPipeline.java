@@ -0,0 +1,244 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util.jar;
+
+import dev.oblivruin.jcu.ClassFileReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Transforms classes of a jar into a new jar, inflating, transforming and deflating
+ * on separate worker pools so that the stages overlap.
+ * <p>
+ * Entries are read and written by the calling thread, in the order of the input central directory.
+ * At most {@code window} entries are in flight, which bounds both the queues of the pools and the memory.
+ * <br>
+ * Entries which are not classes, rejected by {@link Transformer#accept(String)},
+ * or unchanged by the transformer are copied without recompressing.
+ *
+ * @author OblivRuinDev
+ */
+public final class JarPipeline {
+    /**
+     * Transforms a class, called concurrently from the transform pool.
+     */
+    public interface Transformer {
+        /**
+         * Filter classes by entry name before inflating, accepts all by default.
+         *
+         * @param name the entry name, e.g. {@code java/lang/Object.class}
+         * @return whether the class may be transformed
+         */
+        default boolean accept(String name) {
+            return true;
+        }
+
+        /**
+         * @param name the entry name
+         * @param reader the reader of the class file
+         * @return the new class file bytes, or {@code null} if unchanged
+         */
+        byte[] transform(String name, ClassFileReader reader);
+    }
+
+    private final Transformer transformer;
+    private final int inflaters, transformers, deflaters, window, level;
+
+    /**
+     * Create a pipeline with a thread per processor for transforming,
+     * and half as many threads for inflating and deflating.
+     *
+     * @param transformer the class transformer
+     */
+    public JarPipeline(Transformer transformer) {
+        this(transformer, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                Runtime.getRuntime().availableProcessors(),
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                Runtime.getRuntime().availableProcessors() * 16, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param transformer the class transformer
+     * @param inflaters thread count of the inflate pool
+     * @param transformers thread count of the transform pool
+     * @param deflaters thread count of the deflate pool
+     * @param window max count of entries in flight
+     * @param level compression level of transformed classes
+     */
+    public JarPipeline(Transformer transformer, int inflaters, int transformers, int deflaters, int window, int level) {
+        if (inflaters <= 0 || transformers <= 0 || deflaters <= 0 || window <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.transformer = transformer;
+        this.inflaters = inflaters;
+        this.transformers = transformers;
+        this.deflaters = deflaters;
+        this.window = window;
+        this.level = level;
+    }
+
+    /**
+     * Transform a jar.
+     *
+     * @param input the input jar
+     * @param output the output jar, overwritten if it exists
+     * @return count of transformed classes
+     * @throws IOException if an I/O error occurs or a stage failed
+     */
+    public int run(Path input, Path output) throws IOException {
+        ExecutorService inflatePool = Executors.newFixedThreadPool(inflaters, factory("inflate"));
+        ExecutorService transformPool = Executors.newFixedThreadPool(transformers, factory("transform"));
+        ExecutorService deflatePool = Executors.newFixedThreadPool(deflaters, factory("deflate"));
+        int changed = 0;
+        try (RawZipReader reader = new RawZipReader(input);
+             RawZipWriter writer = new RawZipWriter(output)) {
+            ArrayDeque<CompletableFuture<Result>> pending = new ArrayDeque<>(window);
+            for (RawZipEntry entry : reader.entries()) {
+                if (pending.size() >= window) {
+                    changed+=write(writer, pending.poll());
+                }
+                byte[] raw = reader.read(entry);
+                Result copy = new Result(entry, raw, false);
+                if (entry.isDirectory() || !entry.name.endsWith(".class") || !transformer.accept(entry.name) ||
+                        (entry.method != RawZipEntry.STORED && entry.method != RawZipEntry.DEFLATED)) {
+                    pending.add(CompletableFuture.completedFuture(copy));
+                    continue;
+                }
+                pending.add(CompletableFuture.supplyAsync(() -> inflate(entry, raw), inflatePool)
+                        .thenApplyAsync(bytes -> transformer.transform(entry.name, new ClassFileReader(bytes)), transformPool)
+                        .thenApplyAsync(bytes -> bytes == null ? copy : deflate(entry, bytes), deflatePool));
+            }
+            while (!pending.isEmpty()) {
+                changed+=write(writer, pending.poll());
+            }
+        } finally {
+            inflatePool.shutdownNow();
+            transformPool.shutdownNow();
+            deflatePool.shutdownNow();
+        }
+        return changed;
+    }
+
+    private static int write(RawZipWriter writer, CompletableFuture<Result> future) throws IOException {
+        Result result;
+        try {
+            result = future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException(cause);
+        }
+        writer.write(result.entry, result.data, 0, result.length);
+        return result.changed ? 1 : 0;
+    }
+
+    /**
+     * Zlib streams are created per entry and ended right after, as the pools are discarded after each run.
+     */
+    private byte[] inflate(RawZipEntry entry, byte[] raw) {
+        if (entry.method == RawZipEntry.STORED) {
+            return raw;
+        }
+        byte[] ret = new byte[(int) entry.size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(raw);
+            int len = 0;
+            while (len < ret.length && !inflater.finished()) {
+                int n = inflater.inflate(ret, len, ret.length - len);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                len+=n;
+            }
+            if (len != ret.length) {
+                throw new UncheckedIOException(new ZipException("Size mismatch: " + entry));
+            }
+        } catch (DataFormatException ex) {
+            throw new UncheckedIOException(new ZipException(entry + ": " + ex.getMessage()));
+        } finally {
+            inflater.end();
+        }
+        return ret;
+    }
+
+    private Result deflate(RawZipEntry entry, byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        int value = (int) crc.getValue();
+        if (entry.method == RawZipEntry.STORED) {
+            return new Result(entry.withData(RawZipEntry.STORED, value, bytes.length, bytes.length), bytes, true);
+        }
+        byte[] out = new byte[bytes.length + (bytes.length >> 3) + 64];
+        int len = 0;
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (len == out.length) {
+                    byte[] grown = new byte[out.length * 2];
+                    System.arraycopy(out, 0, grown, 0, len);
+                    out = grown;
+                }
+                len+=deflater.deflate(out, len, out.length - len);
+            }
+        } finally {
+            deflater.end();
+        }
+        Result result = new Result(entry.withData(RawZipEntry.DEFLATED, value, len, bytes.length), out, true);
+        result.length = len;
+        return result;
+    }
+
+    private static ThreadFactory factory(String stage) {
+        return task -> {
+            Thread thread = new Thread(task, "jcu-jar-" + stage);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Result {
+        final RawZipEntry entry;
+        final byte[] data;
+        final boolean changed;
+        int length;
+
+        Result(RawZipEntry entry, byte[] data, boolean changed) {
+            this.entry = entry;
+            this.data = data;
+            this.changed = changed;
+            this.length = data.length;
+        }
+    }
+}
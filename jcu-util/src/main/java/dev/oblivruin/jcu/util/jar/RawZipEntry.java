@@ -0,0 +1,99 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util.jar;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A zip entry as stored in the central directory, its data is kept compressed.
+ *
+ * @see RawZipReader
+ * @see RawZipWriter
+ * @author OblivRuinDev
+ */
+public final class RawZipEntry {
+    public static final int STORED = 0;
+    public static final int DEFLATED = 8;
+
+    public final String name;
+    final byte[] nameBytes;
+    final int versionMadeBy;
+    final int versionNeeded;
+    /** General purpose bit flag, without the data descriptor bit. */
+    final int flags;
+    public final int method;
+    /** MS-DOS time and date. */
+    final int dosTime;
+    public final int crc;
+    public final long compressedSize;
+    public final long size;
+    /** Extra field of the local file header, set by {@link RawZipReader#read(RawZipEntry)}. */
+    byte[] localExtra;
+    final byte[] extra;
+    final byte[] comment;
+    final int internalAttributes;
+    final int externalAttributes;
+    /** Offset of the local file header in the source file. */
+    final long offset;
+
+    RawZipEntry(byte[] nameBytes, int versionMadeBy, int versionNeeded, int flags, int method, int dosTime,
+                int crc, long compressedSize, long size, byte[] localExtra, byte[] extra, byte[] comment,
+                int internalAttributes, int externalAttributes, long offset) {
+        this.name = new String(nameBytes, (flags & 0x800) != 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+        this.nameBytes = nameBytes;
+        this.versionMadeBy = versionMadeBy;
+        this.versionNeeded = versionNeeded;
+        this.flags = flags & ~8;
+        this.method = method;
+        this.dosTime = dosTime;
+        this.crc = crc;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.localExtra = localExtra;
+        this.extra = extra;
+        this.comment = comment;
+        this.internalAttributes = internalAttributes;
+        this.externalAttributes = externalAttributes;
+        this.offset = offset;
+    }
+
+    /**
+     * Create an entry with the same name and attributes but different data.
+     *
+     * @param method {@link #STORED} or {@link #DEFLATED}
+     * @param crc CRC-32 of uncompressed data
+     * @param compressedSize the size of compressed data
+     * @param size the size of uncompressed data
+     * @return the new entry
+     */
+    public RawZipEntry withData(int method, int crc, long compressedSize, long size) {
+        return new RawZipEntry(nameBytes, versionMadeBy, method == STORED ? 10 : 20, flags, method, dosTime,
+                crc, compressedSize, size, localExtra, extra, comment, internalAttributes, externalAttributes, -1);
+    }
+
+    /**
+     * @return whether the entry is a directory
+     */
+    public boolean isDirectory() {
+        return name.endsWith("/");
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,221 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util.jar;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipException;
+
+/**
+ * A minimal zip reader which returns the compressed data of entries,
+ * so that they can be copied without inflating and deflating.
+ * <br>
+ * Entries are listed from the central directory, in the order of it.
+ * ZIP64 is supported, encrypted entries and multi-disk archives are not.
+ *
+ * @see RawZipWriter
+ * @author OblivRuinDev
+ */
+public final class RawZipReader implements Closeable {
+    private static final int LOC = 0x04034b50, CEN = 0x02014b50, END = 0x06054b50;
+    private static final int ZIP64_END = 0x06064b50, ZIP64_LOCATOR = 0x07064b50;
+
+    private final FileChannel channel;
+    private final List<RawZipEntry> entries;
+
+    public RawZipReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.entries = readCentral();
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return entries in the order of the central directory
+     */
+    public List<RawZipEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * Read the compressed data of an entry, and the extra field of its local header.
+     *
+     * @param entry an entry of this reader
+     * @return the compressed data, or the data itself for {@link RawZipEntry#STORED}
+     * @throws IOException if an I/O error occurs or the local header is malformed
+     */
+    public byte[] read(RawZipEntry entry) throws IOException {
+        ByteBuffer header = read(entry.offset, 30);
+        if (header.getInt(0) != LOC) {
+            throw new ZipException("Invalid local header: " + entry);
+        }
+        int nameLen = header.getShort(26) & 0xFFFF;
+        int extraLen = header.getShort(28) & 0xFFFF;
+        if (extraLen != 0) {
+            ByteBuffer extra = read(entry.offset + 30 + nameLen, extraLen);
+            entry.localExtra = stripZip64(extra.array());
+        } else {
+            entry.localExtra = NONE;
+        }
+        if (entry.compressedSize > Integer.MAX_VALUE - 8) {
+            throw new ZipException("Entry too large: " + entry);
+        }
+        return read(entry.offset + 30 + nameLen + extraLen, (int) entry.compressedSize).array();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private List<RawZipEntry> readCentral() throws IOException {
+        long fileSize = channel.size();
+        int tailLen = (int) Math.min(fileSize, 22 + 0xFFFF);
+        ByteBuffer tail = read(fileSize - tailLen, tailLen);
+        int end = tailLen - 22;
+        for (; end >= 0; --end) {
+            if (tail.getInt(end) == END) {
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new ZipException("End of central directory not found");
+        }
+        long count = tail.getShort(end + 10) & 0xFFFF;
+        long cenSize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+        long cenOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+        if ((count == 0xFFFF || cenSize == 0xFFFFFFFFL || cenOffset == 0xFFFFFFFFL) &&
+                end >= 20 && tail.getInt(end - 20) == ZIP64_LOCATOR) {
+            ByteBuffer zip64 = read(tail.getLong(end - 12), 56);
+            if (zip64.getInt(0) != ZIP64_END) {
+                throw new ZipException("Invalid ZIP64 end of central directory");
+            }
+            count = zip64.getLong(32);
+            cenSize = zip64.getLong(40);
+            cenOffset = zip64.getLong(48);
+        }
+        if (cenSize > Integer.MAX_VALUE || count > Integer.MAX_VALUE) {
+            throw new ZipException("Central directory too large");
+        }
+        ByteBuffer cen = read(cenOffset, (int) cenSize);
+        List<RawZipEntry> entries = new ArrayList<>((int) count);
+        for (int off = 0; count > 0; --count) {
+            if (cen.getInt(off) != CEN) {
+                throw new ZipException("Invalid central directory header");
+            }
+            int flags = cen.getShort(off + 8) & 0xFFFF;
+            if ((flags & 1) != 0) {
+                throw new ZipException("Encrypted entry is not supported");
+            }
+            int nameLen = cen.getShort(off + 28) & 0xFFFF;
+            int extraLen = cen.getShort(off + 30) & 0xFFFF;
+            int commentLen = cen.getShort(off + 32) & 0xFFFF;
+            byte[] name = slice(cen, off + 46, nameLen);
+            byte[] extra = slice(cen, off + 46 + nameLen, extraLen);
+            long compressedSize = cen.getInt(off + 20) & 0xFFFFFFFFL;
+            long size = cen.getInt(off + 24) & 0xFFFFFFFFL;
+            long offset = cen.getInt(off + 42) & 0xFFFFFFFFL;
+            if (compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) {
+                // values in ZIP64 extended information are in fixed order, only present if needed
+                int pos = findZip64(extra);
+                if (pos < 0) {
+                    throw new ZipException("Missing ZIP64 extended information");
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(extra).order(ByteOrder.LITTLE_ENDIAN);
+                if (size == 0xFFFFFFFFL) {
+                    size = buffer.getLong(pos);
+                    pos+=8;
+                }
+                if (compressedSize == 0xFFFFFFFFL) {
+                    compressedSize = buffer.getLong(pos);
+                    pos+=8;
+                }
+                if (offset == 0xFFFFFFFFL) {
+                    offset = buffer.getLong(pos);
+                }
+            }
+            entries.add(new RawZipEntry(name, cen.getShort(off + 4) & 0xFFFF, cen.getShort(off + 6) & 0xFFFF,
+                    flags, cen.getShort(off + 10) & 0xFFFF, cen.getInt(off + 12), cen.getInt(off + 16),
+                    compressedSize, size, null, stripZip64(extra), slice(cen, off + 46 + nameLen + extraLen, commentLen),
+                    cen.getShort(off + 36) & 0xFFFF, cen.getInt(off + 38), offset));
+            off+=(46 + nameLen + extraLen + commentLen);
+        }
+        return entries;
+    }
+
+    private ByteBuffer read(long position, int len) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer;
+    }
+
+    private static final byte[] NONE = {};
+
+    private static byte[] slice(ByteBuffer buffer, int off, int len) {
+        if (len == 0) {
+            return NONE;
+        }
+        byte[] ret = new byte[len];
+        System.arraycopy(buffer.array(), off, ret, 0, len);
+        return ret;
+    }
+
+    /**
+     * @return the position of the data of ZIP64 extended information, or -1 if absent
+     */
+    private static int findZip64(byte[] extra) {
+        for (int off = 0; off + 4 <= extra.length; ) {
+            int len = (extra[off + 2] & 0xFF) | (extra[off + 3] & 0xFF) << 8;
+            if (extra[off] == 1 && extra[off + 1] == 0) {
+                return off + 4;
+            }
+            off+=(4 + len);
+        }
+        return -1;
+    }
+
+    /**
+     * Remove ZIP64 extended information, as sizes and offsets are rewritten by {@link RawZipWriter}.
+     */
+    private static byte[] stripZip64(byte[] extra) {
+        int pos = findZip64(extra);
+        if (pos < 0) {
+            return extra;
+        }
+        int start = pos - 4;
+        int end = Math.min(extra.length, pos + ((extra[start + 2] & 0xFF) | (extra[start + 3] & 0xFF) << 8));
+        byte[] ret = new byte[extra.length - (end - start)];
+        System.arraycopy(extra, 0, ret, 0, start);
+        System.arraycopy(extra, end, ret, start, extra.length - end);
+        return ret;
+    }
+}
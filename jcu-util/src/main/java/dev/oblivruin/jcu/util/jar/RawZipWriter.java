@@ -0,0 +1,172 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util.jar;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipException;
+
+/**
+ * A minimal zip writer which writes already compressed data.
+ * <br>
+ * Data descriptors are never written, as sizes and CRC-32 are known before the data.
+ * ZIP64 end of central directory is written when needed,
+ * entries larger than 4 GiB or beyond 4 GiB are not supported.
+ *
+ * @see RawZipReader
+ * @author OblivRuinDev
+ */
+public final class RawZipWriter implements Closeable {
+    private final OutputStream out;
+    private final ByteBuffer header = ByteBuffer.allocate(56).order(ByteOrder.LITTLE_ENDIAN);
+    private final List<RawZipEntry> entries = new ArrayList<>();
+    private final List<Long> offsets = new ArrayList<>();
+    private long position = 0;
+    private boolean closed = false;
+
+    public RawZipWriter(Path path) throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16);
+    }
+
+    /**
+     * Write an entry.
+     *
+     * @param entry the entry, its sizes and CRC-32 must match the data
+     * @param data compressed data, or the data itself for {@link RawZipEntry#STORED}
+     * @param off the start offset of data
+     * @param len the length of data
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(RawZipEntry entry, byte[] data, int off, int len) throws IOException {
+        if (len != entry.compressedSize) {
+            throw new IllegalArgumentException("Size mismatch: " + entry);
+        }
+        if (position >= 0xFFFFFFFFL || entry.size >= 0xFFFFFFFFL) {
+            throw new ZipException("ZIP64 entries are not supported: " + entry);
+        }
+        byte[] extra = entry.localExtra == null ? entry.extra : entry.localExtra;
+        ByteBuffer header = this.header;
+        header.clear();
+        header.putInt(0x04034b50)
+                .putShort((short) entry.versionNeeded)
+                .putShort((short) entry.flags)
+                .putShort((short) entry.method)
+                .putInt(entry.dosTime)
+                .putInt(entry.crc)
+                .putInt(len)
+                .putInt((int) entry.size)
+                .putShort((short) entry.nameBytes.length)
+                .putShort((short) extra.length);
+        entries.add(entry);
+        offsets.add(position);
+        write(header.array(), 30);
+        write(entry.nameBytes, entry.nameBytes.length);
+        write(extra, extra.length);
+        out.write(data, off, len);
+        position+=len;
+    }
+
+    /**
+     * Write the central directory and close the file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            ByteBuffer header = this.header;
+            long cenOffset = position;
+            for (int index = 0, size = entries.size(); index < size; ++index) {
+                RawZipEntry entry = entries.get(index);
+                header.clear();
+                header.putInt(0x02014b50)
+                        .putShort((short) entry.versionMadeBy)
+                        .putShort((short) entry.versionNeeded)
+                        .putShort((short) entry.flags)
+                        .putShort((short) entry.method)
+                        .putInt(entry.dosTime)
+                        .putInt(entry.crc)
+                        .putInt((int) entry.compressedSize)
+                        .putInt((int) entry.size)
+                        .putShort((short) entry.nameBytes.length)
+                        .putShort((short) entry.extra.length)
+                        .putShort((short) entry.comment.length)
+                        .putShort((short) 0)
+                        .putShort((short) entry.internalAttributes)
+                        .putInt(entry.externalAttributes)
+                        .putInt(offsets.get(index).intValue());
+                write(header.array(), 46);
+                write(entry.nameBytes, entry.nameBytes.length);
+                write(entry.extra, entry.extra.length);
+                write(entry.comment, entry.comment.length);
+            }
+            long cenSize = position - cenOffset;
+            long count = entries.size();
+            boolean zip64 = count >= 0xFFFF || cenOffset >= 0xFFFFFFFFL || cenSize >= 0xFFFFFFFFL;
+            if (zip64) {
+                long end64 = position;
+                header.clear();
+                header.putInt(0x06064b50)
+                        .putLong(44)
+                        .putShort((short) 45)
+                        .putShort((short) 45)
+                        .putInt(0)
+                        .putInt(0)
+                        .putLong(count)
+                        .putLong(count)
+                        .putLong(cenSize)
+                        .putLong(cenOffset);
+                write(header.array(), 56);
+                header.clear();
+                header.putInt(0x07064b50)
+                        .putInt(0)
+                        .putLong(end64)
+                        .putInt(1);
+                write(header.array(), 20);
+            }
+            header.clear();
+            header.putInt(0x06054b50)
+                    .putShort((short) 0)
+                    .putShort((short) 0)
+                    .putShort((short) Math.min(count, 0xFFFF))
+                    .putShort((short) Math.min(count, 0xFFFF))
+                    .putInt((int) Math.min(cenSize, 0xFFFFFFFFL))
+                    .putInt((int) Math.min(cenOffset, 0xFFFFFFFFL))
+                    .putShort((short) 0);
+            write(header.array(), 22);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void write(byte[] bytes, int len) throws IOException {
+        out.write(bytes, 0, len);
+        position+=len;
+    }
+}
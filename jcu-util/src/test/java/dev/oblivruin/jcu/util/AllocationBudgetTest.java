@@ -0,0 +1,51 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.test.AllocationHarness;
+import dev.oblivruin.jcu.test.BytesHelper;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks hot paths of jcu-util against their {@code @AllocationBudget}.
+ */
+public class AllocationBudgetTest {
+    private final ClassFileReader object = new ClassFileReader(BytesHelper.j8ObjBytes);
+
+    @Test
+    public void descriptorCursor() {
+        int desc = object.findUtf8("(Ljava/lang/Object;)Z");
+        DescriptorCursor cursor = new DescriptorCursor();
+        AllocationHarness.check(DescriptorCursor.class, "next", "()Z", () -> {
+            cursor.reset(object, desc);
+            while (cursor.next());
+            cursor.returnType();
+        });
+        AllocationHarness.check(DescriptorCursor.class, "argumentSlots", "(Ldev/oblivruin/jcu/ClassFileReader;I)I",
+                () -> DescriptorCursor.argumentSlots(object, desc));
+    }
+
+    @Test
+    public void signatureReader() {
+        int signature = object.findUtf8("()Ljava/lang/Class<*>;");
+        ISignatureVisitor visitor = new ISignatureVisitor() {};
+        AllocationHarness.check(SignatureReader.class, "acceptMethod",
+                "(Ldev/oblivruin/jcu/ClassFileReader;ILdev/oblivruin/jcu/util/ISignatureVisitor;)V",
+                () -> SignatureReader.acceptMethod(object, signature, visitor));
+    }
+}
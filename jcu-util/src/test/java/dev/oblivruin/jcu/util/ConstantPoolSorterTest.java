@@ -0,0 +1,168 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.AttributeWriter;
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.MethodWriter;
+import dev.oblivruin.jcu.constant.AccessFlag;
+import dev.oblivruin.jcu.constant.Opcodes;
+import dev.oblivruin.jcu.constant.Tag;
+import dev.oblivruin.jcu.test.BytesHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConstantPoolSorterTest {
+    private static final String NAME = "dev/oblivruin/jcu/util/SortedPool";
+    private static final int STRINGS = 20, INTS = 100;
+
+    @ParameterizedTest
+    @ArgumentsSource(BytesHelper.ALL.class)
+    public void sortSamples(byte[] bytes) {
+        check(bytes);
+    }
+
+    @Test
+    public void sortLargePool() throws Exception {
+        byte[] bytes = largePool();
+        assertTrue(new ClassFileReader(bytes).count() > 256);
+        byte[] sorted = check(bytes);
+        Class<?> type = new Loader().define(sorted);
+        assertEquals("s0", type.getMethod("run").invoke(null));
+    }
+
+    /**
+     * @return the sorted class file
+     */
+    private static byte[] check(byte[] bytes) {
+        byte[] sorted = ConstantPoolSorter.sort(bytes);
+        assertEquals(bytes.length, sorted.length);
+        assertTrue(ClassDiff.equals(new ClassFileReader(bytes), new ClassFileReader(sorted)));
+        // an ldc target moved to 256 or above would be truncated to another constant
+        assertIterableEquals(ldcValues(bytes), ldcValues(sorted));
+        assertArrayEquals(sorted, ConstantPoolSorter.sort(sorted));
+        return sorted;
+    }
+
+    /**
+     * @return values of constants loaded by {@code ldc} and {@code ldc_w}, in code order
+     */
+    private static List<String> ldcValues(byte[] bytes) {
+        ClassFileReader reader = new ClassFileReader(bytes);
+        List<String> values = new ArrayList<>();
+        int off = reader.methodPos();
+        int methods = reader.readU2(off);
+        for (off+=2; methods > 0; --methods) {
+            int attrs = reader.readU2(off + 6);
+            for (off+=8; attrs > 0; --attrs) {
+                if (reader.utf8V(reader.readU2(off)).equals("Code")) {
+                    int start = off + 14;
+                    int end = start + reader.readInt(off + 10);
+                    for (int pos = start; pos < end; pos = Bytecodes.next(bytes, start, pos)) {
+                        int opcode = bytes[pos] & 0xFF;
+                        if (opcode == Opcodes.LDC) {
+                            values.add(value(reader, bytes[pos + 1] & 0xFF));
+                        } else if (opcode == Opcodes.LDC_W) {
+                            values.add(value(reader, reader.readU2(pos + 1)));
+                        }
+                    }
+                }
+                off+=(6 + reader.readInt(off + 2));
+            }
+        }
+        return values;
+    }
+
+    private static String value(ClassFileReader reader, int index) {
+        int tag = reader.tag(index);
+        switch (tag) {
+            case Tag.String:
+            case Tag.Class:
+            case Tag.MethodType:
+                return tag + " " + reader.utf8V(reader.ref1Index(index));
+            case Tag.Integer:
+                return tag + " " + reader.intV(index);
+            default:
+                return java.lang.String.valueOf(tag);
+        }
+    }
+
+    /**
+     * A class whose {@code ldc} strings are behind 200 integers and are moved by sorting,
+     * followed by more integers loaded by {@code ldc_w}. {@code run()} returns {@code "s0"}.
+     */
+    private static byte[] largePool() {
+        ClassFileWriter writer = new ClassFileWriter();
+        for (int index = 0; index < 200; ++index) {
+            writer.findInt(1000 + index);
+        }
+        int[] strings = new int[STRINGS];
+        for (int index = 0; index < STRINGS; ++index) {
+            strings[index] = writer.findRef1(Tag.String, writer.findUtf8("s" + index));
+            assertTrue(strings[index] < 256);
+        }
+        int[] ints = new int[INTS];
+        for (int index = 0; index < INTS; ++index) {
+            ints[index] = writer.findInt(2000 + index);
+        }
+        writer.visit(52, AccessFlag.ACC_PUBLIC | AccessFlag.ACC_SUPER,
+                writer.findRef1(Tag.Class, writer.findUtf8(NAME)),
+                writer.findRef1(Tag.Class, writer.findUtf8("java/lang/Object")), null);
+        MethodWriter method = writer.visitMethod(AccessFlag.ACC_PUBLIC | AccessFlag.ACC_STATIC,
+                writer.findUtf8("run"), writer.findUtf8("()Ljava/lang/String;"));
+        AttributeWriter code = method.visitAttribute(writer.findUtf8("Code"));
+        code.writeU2(1);// max_stack
+        code.writeU2(0);// max_locals
+        code.writeU4(STRINGS*3 + INTS*4 + 3);
+        for (int string : strings) {
+            code.write((byte) Opcodes.LDC);
+            code.write((byte) string);
+            code.write((byte) Opcodes.POP);
+        }
+        for (int value : ints) {
+            code.write((byte) Opcodes.LDC_W);
+            code.writeU2(value);
+            code.write((byte) Opcodes.POP);
+        }
+        code.write((byte) Opcodes.LDC);
+        code.write((byte) strings[0]);
+        code.write((byte) Opcodes.ARETURN);
+        code.writeU2(0);// exception_table_length
+        code.writeU2(0);// attributes_count
+        code.visitEnd();
+        method.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static final class Loader extends ClassLoader {
+        Loader() {
+            super(null);
+        }
+
+        Class<?> define(byte[] bytes) {
+            return defineClass(null, bytes, 0, bytes.length);
+        }
+    }
+}
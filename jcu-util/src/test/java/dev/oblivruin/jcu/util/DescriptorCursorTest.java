@@ -0,0 +1,126 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.ClassFileWriter;
+import dev.oblivruin.jcu.IllegalDescException;
+import dev.oblivruin.jcu.constant.AccessFlag;
+import dev.oblivruin.jcu.constant.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptorCursorTest {
+    @Test
+    public void parenthesisInClassName() {
+        String desc = "(La);I[La);)La);";
+        assertEquals(Arrays.asList("La);", "I", "[La);"), parameters(desc));
+        DescriptorCursor cursor = cursor(desc);
+        cursor.returnType();
+        assertEquals("La);", text(cursor));
+        assertEquals("a)", new String(cursor.bytes(), cursor.nameOffset(), cursor.nameLength(), StandardCharsets.UTF_8));
+        ClassFileReader reader = reader(desc);
+        int index = reader.findUtf8(desc);
+        assertEquals(3, DescriptorCursor.argumentSlots(reader, index));
+        assertEquals(1 - 3 - 1, DescriptorCursor.invokeStackEffect(reader, index, true));
+    }
+
+    @Test
+    public void methodDescriptor() {
+        String desc = "(JD[JLx;[[Ljava/lang/String;)V";
+        assertEquals(Arrays.asList("J", "D", "[J", "Lx;", "[[Ljava/lang/String;"), parameters(desc));
+        DescriptorCursor cursor = cursor(desc);
+        cursor.returnType();
+        assertEquals('V', cursor.kind());
+        assertEquals(0, cursor.slots());
+        ClassFileReader reader = reader(desc);
+        int index = reader.findUtf8(desc);
+        assertEquals(7, DescriptorCursor.argumentSlots(reader, index));
+        assertEquals(-7, DescriptorCursor.invokeStackEffect(reader, index, false));
+    }
+
+    @Test
+    public void fieldDescriptor() {
+        DescriptorCursor cursor = cursor("[[Ljava/lang/String;");
+        assertTrue(cursor.next());
+        assertEquals('[', cursor.kind());
+        assertEquals('L', cursor.elementKind());
+        assertEquals(2, cursor.dimensions());
+        assertEquals("java/lang/String", new String(cursor.bytes(), cursor.nameOffset(), cursor.nameLength(), StandardCharsets.UTF_8));
+        assertFalse(cursor.next());
+        assertThrows(IllegalDescException.class, cursor::returnType);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"(V)V", "(IV)V", "(I", "(La);", "([[)V", "(Lfoo", "V", "[V", "Q", "(I)[V", "(I)", "(I)Q"})
+    public void malformed(String desc) {
+        assertThrows(IllegalDescException.class, () -> {
+            DescriptorCursor cursor = cursor(desc);
+            while (cursor.next()) {
+                // parameters
+            }
+            cursor.returnType();
+        }, desc);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"I", "", "(V)V", "(I", "(Lfoo", "([[", "La;)V"})
+    public void malformedArgumentSlots(String desc) {
+        ClassFileReader reader = reader(desc);
+        int index = reader.findUtf8(desc);
+        assertThrows(IllegalDescException.class, () -> DescriptorCursor.argumentSlots(reader, index), desc);
+    }
+
+    private static DescriptorCursor cursor(String desc) {
+        byte[] bytes = desc.getBytes(StandardCharsets.UTF_8);
+        return new DescriptorCursor().reset(bytes, 0, bytes.length);
+    }
+
+    private static List<String> parameters(String desc) {
+        DescriptorCursor cursor = cursor(desc);
+        List<String> types = new ArrayList<>();
+        while (cursor.next()) {
+            types.add(text(cursor));
+        }
+        return types;
+    }
+
+    private static String text(DescriptorCursor cursor) {
+        return new String(cursor.bytes(), cursor.offset(), cursor.length(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the reader of a class whose constant pool contains the descriptor
+     */
+    private static ClassFileReader reader(String desc) {
+        ClassFileWriter writer = new ClassFileWriter();
+        writer.findUtf8(desc);
+        writer.visit(52, AccessFlag.ACC_PUBLIC | AccessFlag.ACC_SUPER,
+                writer.findRef1(Tag.Class, writer.findUtf8("Test")),
+                writer.findRef1(Tag.Class, writer.findUtf8("java/lang/Object")), null);
+        writer.visitEnd();
+        return new ClassFileReader(writer.toByteArray());
+    }
+}
@@ -0,0 +1,213 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util;
+
+import dev.oblivruin.jcu.IllegalDescException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignatureReaderTest {
+    @Test
+    public void javadocExample() {
+        assertEvents(Arrays.asList(
+                "array",
+                "class java/util/Map",
+                "arg =", "var K",
+                "arg =", "class java/util/List",
+                "arg +", "var V",
+                "end",
+                "inner Entry",
+                "end"
+        ), 'F', "[Ljava/util/Map<TK;Ljava/util/List<+TV;>;>.Entry;");
+    }
+
+    @Test
+    public void innerClassArguments() {
+        assertEvents(Arrays.asList(
+                "class a/Outer",
+                "arg =", "var T",
+                "inner Inner",
+                "arg -", "class java/lang/Number", "end",
+                "arg *",
+                "inner Deep",
+                "arg =", "array", "base I",
+                "end"
+        ), 'F', "La/Outer<TT;>.Inner<-Ljava/lang/Number;*>.Deep<[I>;");
+    }
+
+    @Test
+    public void classBounds() {
+        assertEvents(Arrays.asList(
+                "formal T",
+                "classBound", "class java/lang/Object", "end",
+                "formal U",
+                "interfaceBound", "class java/lang/Comparable", "arg =", "var U", "end",
+                "interfaceBound", "class java/io/Serializable", "end",
+                "superclass", "class java/lang/Object", "end",
+                "interface", "class java/lang/Runnable", "end"
+        ), 'C', "<T:Ljava/lang/Object;U::Ljava/lang/Comparable<TU;>;:Ljava/io/Serializable;>" +
+                "Ljava/lang/Object;Ljava/lang/Runnable;");
+    }
+
+    @Test
+    public void methodThrows() {
+        assertEvents(Arrays.asList(
+                "formal E",
+                "classBound", "class java/lang/Exception", "end",
+                "param", "base I",
+                "param", "array", "var E",
+                "return", "base V",
+                "throws", "var E",
+                "throws", "class java/io/IOException", "end"
+        ), 'M', "<E:Ljava/lang/Exception;>(I[TE;)V^TE;^Ljava/io/IOException;");
+    }
+
+    @Test
+    public void methodResult() {
+        assertEvents(Arrays.asList("return", "array", "base J"), 'M', "()[J");
+        assertEvents(Arrays.asList("param", "var T", "return", "var T"), 'M', "(TT;)TT;");
+    }
+
+    /**
+     * The first char selects the kind: {@code F} field, {@code C} class or {@code M} method.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "FV", "FI", "F", "FLjava/lang/Object", "F[V", "FLjava/util/List<>;", "FTT",
+            "MV", "M(V)V", "M()[V", "M()", "M()V^I", "M()V^[I", "M()VV", "M(I",
+            "C<>Ljava/lang/Object;", "C<T:V>Ljava/lang/Object;", "CI", "C[I", "CTT;", "C<T:Ljava/lang/Object;"
+    })
+    public void malformed(String input) {
+        assertThrows(IllegalDescException.class, () -> read(input.charAt(0), input.substring(1)), input);
+    }
+
+    private static void assertEvents(List<String> expected, char kind, String signature) {
+        assertEquals(expected, read(kind, signature), signature);
+    }
+
+    private static List<String> read(char kind, String signature) {
+        byte[] bytes = signature.getBytes(StandardCharsets.UTF_8);
+        Recorder recorder = new Recorder(bytes);
+        switch (kind) {
+            case 'F':
+                SignatureReader.acceptField(bytes, 0, bytes.length, recorder);
+                break;
+            case 'C':
+                SignatureReader.acceptClass(bytes, 0, bytes.length, recorder);
+                break;
+            default:
+                SignatureReader.acceptMethod(bytes, 0, bytes.length, recorder);
+        }
+        return recorder.events;
+    }
+
+    private static final class Recorder implements ISignatureVisitor {
+        final List<String> events = new ArrayList<>();
+        final byte[] bytes;
+
+        Recorder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private String name(int off, int len) {
+            return new String(bytes, off, len, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void visitFormalTypeParameter(int off, int len) {
+            events.add("formal " + name(off, len));
+        }
+
+        @Override
+        public void visitClassBound() {
+            events.add("classBound");
+        }
+
+        @Override
+        public void visitInterfaceBound() {
+            events.add("interfaceBound");
+        }
+
+        @Override
+        public void visitSuperclass() {
+            events.add("superclass");
+        }
+
+        @Override
+        public void visitInterface() {
+            events.add("interface");
+        }
+
+        @Override
+        public void visitParameterType() {
+            events.add("param");
+        }
+
+        @Override
+        public void visitReturnType() {
+            events.add("return");
+        }
+
+        @Override
+        public void visitExceptionType() {
+            events.add("throws");
+        }
+
+        @Override
+        public void visitBaseType(int kind) {
+            events.add("base " + (char) kind);
+        }
+
+        @Override
+        public void visitTypeVariable(int off, int len) {
+            events.add("var " + name(off, len));
+        }
+
+        @Override
+        public void visitArrayType() {
+            events.add("array");
+        }
+
+        @Override
+        public void visitClassType(int off, int len) {
+            events.add("class " + name(off, len));
+        }
+
+        @Override
+        public void visitInnerClassType(int off, int len) {
+            events.add("inner " + name(off, len));
+        }
+
+        @Override
+        public void visitTypeArgument(int wildcard) {
+            events.add("arg " + (char) wildcard);
+        }
+
+        @Override
+        public void visitEnd() {
+            events.add("end");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.util.jar;
+
+import dev.oblivruin.jcu.ClassFileReader;
+import dev.oblivruin.jcu.test.BytesHelper;
+import dev.oblivruin.jcu.util.DebugInfoStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JarPipelineTest {
+    private static final JarPipeline.Transformer STRIP = new JarPipeline.Transformer() {
+        @Override
+        public boolean accept(String name) {
+            return !name.startsWith("skip/");
+        }
+
+        @Override
+        public byte[] transform(String name, ClassFileReader reader) {
+            byte[] output = DebugInfoStripper.strip(reader);
+            return output == reader.bytes() ? null : output;
+        }
+    };
+
+    @Test
+    public void roundTrip() throws IOException {
+        Path input = Files.createTempFile("jcu-in", ".jar");
+        Path output = Files.createTempFile("jcu-out", ".jar");
+        try {
+            Map<String, byte[]> entries = new LinkedHashMap<>();
+            entries.put("dir/", new byte[0]);
+            entries.put("stored.txt", text(1000));
+            entries.put("deflated.txt", text(5000));
+            entries.put("empty.txt", new byte[0]);
+            entries.put("java/lang/Object.class", BytesHelper.j8ObjBytes);
+            entries.put("stored/Object.class", BytesHelper.j8ObjBytes);
+            entries.put("skip/Object.class", BytesHelper.j8ObjBytes);
+            entries.put("module-info.class", BytesHelper.jshModuleBytes);
+            write(input, entries);
+
+            Map<String, byte[]> expected = new LinkedHashMap<>();
+            expected.put("META-INF/MANIFEST.MF", null);
+            int changed = 0;
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                String name = entry.getKey();
+                byte[] data = entry.getValue();
+                if (name.endsWith(".class") && STRIP.accept(name)) {
+                    byte[] stripped = STRIP.transform(name, new ClassFileReader(data));
+                    if (stripped != null) {
+                        ++changed;
+                        data = stripped;
+                    }
+                }
+                expected.put(name, data);
+            }
+            assertTrue(changed > 0);
+            try (ZipFile zip = new ZipFile(input.toFile())) {
+                expected.put("META-INF/MANIFEST.MF", read(zip.getInputStream(zip.getEntry("META-INF/MANIFEST.MF"))));
+            }
+            assertTrue(descriptors(input) > 0);
+
+            assertEquals(changed, new JarPipeline(STRIP, 2, 2, 2, 3, 9).run(input, output));
+            assertEntries(expected, byZipFile(output));
+            assertEntries(expected, byZipInputStream(output));
+            assertEquals(0, descriptors(output));
+            try (ZipFile zip = new ZipFile(output.toFile())) {
+                assertEquals(ZipEntry.STORED, zip.getEntry("stored.txt").getMethod());
+                assertEquals(ZipEntry.STORED, zip.getEntry("stored/Object.class").getMethod());
+                assertEquals(ZipEntry.DEFLATED, zip.getEntry("deflated.txt").getMethod());
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    /**
+     * Directories and entries starting with {@code stored} or {@code empty} are stored, the others are deflated
+     * with data descriptors, as {@link JarOutputStream} doesn't know their sizes before the data.
+     */
+    private static void write(Path path, Map<String, byte[]> entries) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+        try (OutputStream file = Files.newOutputStream(path);
+             JarOutputStream jar = new JarOutputStream(file, manifest)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                String name = entry.getKey();
+                byte[] data = entry.getValue();
+                ZipEntry zipEntry = new ZipEntry(name);
+                if (name.startsWith("stored") || name.startsWith("empty") || name.endsWith("/")) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data, 0, data.length);
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(data.length);
+                    zipEntry.setCompressedSize(data.length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+                jar.putNextEntry(zipEntry);
+                jar.write(data);
+                jar.closeEntry();
+            }
+        }
+    }
+
+    private static Map<String, byte[]> byZipFile(Path path) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipFile zip = new ZipFile(path.toFile())) {
+            for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements(); ) {
+                ZipEntry entry = it.nextElement();
+                assertNull(entries.put(entry.getName(), read(zip.getInputStream(entry))));
+            }
+        }
+        return entries;
+    }
+
+    private static Map<String, byte[]> byZipInputStream(Path path) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(path))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                assertNull(entries.put(entry.getName(), read(zip)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return count of entries whose local header has no size, i.e. with a data descriptor
+     */
+    private static int descriptors(Path path) throws IOException {
+        int count = 0;
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(path))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                if (entry.getCompressedSize() < 0) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void assertEntries(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        List<String> names = new ArrayList<>(expected.keySet());
+        assertEquals(names, new ArrayList<>(actual.keySet()));
+        for (String name : names) {
+            assertArrayEquals(expected.get(name), actual.get(name), name);
+        }
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int len; (len = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] text(int lines) {
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < lines; ++index) {
+            builder.append("line ").append(index).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -16,4 +16,4 @@
 // limitations under the License.
 rootProject.name = "JCU"
 
-include("test-tool", "build-api", "jcu-core", "jcu-asm", "jcu-common", "jcu-check", "jcu-util", "build-tool")
\ No newline at end of file
+include("test-tool", "build-api", "jcu-core", "jcu-asm", "jcu-common", "jcu-check", "jcu-util", "jcu-agent", "jcu-bench", "build-tool")
\ No newline at end of file
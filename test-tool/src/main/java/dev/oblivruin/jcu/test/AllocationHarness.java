@@ -0,0 +1,194 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.test;
+
+import dev.oblivruin.jcu.ClassFileReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures per-call allocation with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}
+ * and checks it against {@code @AllocationBudget}, which is read from the class file as it's not visible at runtime.
+ * <p>
+ * Operations are warmed up first, so the result reflects JIT-compiled code, including scalar replacement.
+ */
+public final class AllocationHarness {
+    public static final String BUDGET = "Ldev/oblivruin/jcu/builds/api/perf/AllocationBudget;";
+
+    private static final com.sun.management.ThreadMXBean THREADS;
+    /** Bytes allocated by measuring itself. */
+    private static final long OVERHEAD;
+
+    static {
+        THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Thread allocated memory is not supported");
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        long min = Long.MAX_VALUE;
+        for (int round = 0; round < 16; ++round) {
+            long start = allocatedBytes();
+            min = Math.min(min, allocatedBytes() - start);
+        }
+        OVERHEAD = min;
+    }
+
+    private AllocationHarness() {}
+
+    /** @return total bytes allocated by the current thread */
+    public static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Measure the allocation of an operation, the minimum of several rounds is taken to filter out noise.
+     *
+     * @param operation the operation to measure, it should not allocate for itself
+     * @param iterations calls per round
+     * @return bytes allocated per call
+     */
+    public static double perCall(Runnable operation, int iterations) {
+        for (int index = 0; index < 20_000; ++index) {// warm up
+            operation.run();
+        }
+        long min = Long.MAX_VALUE;
+        for (int round = 0; round < 5; ++round) {
+            long start = allocatedBytes();
+            for (int index = 0; index < iterations; ++index) {
+                operation.run();
+            }
+            min = Math.min(min, allocatedBytes() - start - OVERHEAD);
+        }
+        return Math.max(0, min) / (double) iterations;
+    }
+
+    /**
+     * Read the budget of a method.
+     *
+     * @param owner the declaring class
+     * @param name the method name, {@code <init>} for a constructor
+     * @param desc the method descriptor
+     * @return the budget, or -1 if the method is not annotated
+     */
+    public static int budget(Class<?> owner, String name, String desc) {
+        ClassFileReader reader = new ClassFileReader(read(owner));
+        int nameIndex = reader.findUtf8(name), descIndex = reader.findUtf8(desc);
+        int annotations = reader.findUtf8("RuntimeInvisibleAnnotations"), type = reader.findUtf8(BUDGET);
+        if (nameIndex <= 0 || descIndex <= 0 || annotations <= 0 || type <= 0) {
+            return -1;
+        }
+        int off = reader.methodPos();
+        int count = reader.readU2(off);
+        for (off+=2; count > 0; --count) {
+            boolean found = reader.readU2(off + 2) == nameIndex && reader.readU2(off + 4) == descIndex;
+            int attrs = reader.readU2(off + 6);
+            for (off+=8; attrs > 0; --attrs) {
+                if (found && reader.readU2(off) == annotations) {
+                    return value(reader, off + 6, type);
+                }
+                off+=(6 + reader.readInt(off + 2));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Measure an operation and check it against the budget of the method.
+     *
+     * @return bytes allocated per call
+     * @throws TestException if the method has no budget or the budget is exceeded
+     */
+    public static double check(Class<?> owner, String name, String desc, Runnable operation) {
+        int budget = budget(owner, name, desc);
+        if (budget < 0) {
+            throw new TestException("No allocation budget: " + owner.getName() + '.' + name + desc);
+        }
+        double actual = perCall(operation, 100_000);
+        if (actual > budget) {
+            throw new TestException("Allocation budget exceeded: " + owner.getName() + '.' + name + desc +
+                    " allocates " + actual + " bytes per call, budget is " + budget);
+        }
+        return actual;
+    }
+
+    /**
+     * @param off the position of {@code num_annotations}
+     * @return the {@code int} value of the annotation, or -1 if absent
+     */
+    private static int value(ClassFileReader reader, int off, int type) {
+        int count = reader.readU2(off);
+        for (off+=2; count > 0; --count) {
+            boolean found = reader.readU2(off) == type;
+            int pairs = reader.readU2(off + 2);
+            for (off+=4; pairs > 0; --pairs) {
+                if (found) {// the only element is value()
+                    return reader.intV(reader.readU2(off + 3));
+                }
+                off = skipElement(reader, off + 2);
+            }
+            if (found) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipElement(ClassFileReader reader, int off) {
+        switch (reader.bytes()[off]) {
+            case 'e':
+                return off + 5;
+            case 'c':
+                return off + 3;
+            case '@': {
+                int pairs = reader.readU2(off + 3);
+                for (off+=5; pairs > 0; --pairs) {
+                    off = skipElement(reader, off + 2);
+                }
+                return off;
+            }
+            case '[': {
+                int values = reader.readU2(off + 1);
+                for (off+=3; values > 0; --values) {
+                    off = skipElement(reader, off);
+                }
+                return off;
+            }
+            default:// const_value_index
+                return off + 3;
+        }
+    }
+
+    private static byte[] read(Class<?> type) {
+        String name = '/' + type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new TestException("Class file not found: " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int len; (len = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new TestException(ex.toString());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Loads large sets of real class files for throughput measurement, all in memory and in a stable order.
+ * <ul>
+ *     <li>{@code jrt}: every class of the local runtime image (JDK 9+)</li>
+ *     <li>a jar file, or a directory which is searched for jar and class files</li>
+ * </ul>
+ */
+public final class ClassCorpus {
+    /** Class file bytes. */
+    public final byte[][] classes;
+    /** Sum of lengths of {@link #classes}. */
+    public final long bytes;
+
+    private ClassCorpus(ArrayList<byte[]> classes) {
+        this.classes = classes.toArray(new byte[0][]);
+        long bytes = 0;
+        for (byte[] data : this.classes) {
+            bytes+=data.length;
+        }
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param source {@code jrt}, a jar file or a directory
+     * @return the loaded corpus
+     */
+    public static ClassCorpus load(String source) {
+        return source.equals("jrt") ? jrt() : of(Paths.get(source));
+    }
+
+    /** @return every class of the local runtime image */
+    public static ClassCorpus jrt() {
+        ArrayList<byte[]> classes = new ArrayList<>();
+        try {
+            Path modules = FileSystems.getFileSystem(URI.create("jrt:/")).getPath("/modules");
+            collect(modules, classes);
+        } catch (FileSystemNotFoundException | ProviderNotFoundException ex) {
+            throw new UnsupportedOperationException("jrt file system requires JDK 9+", ex);
+        }
+        return new ClassCorpus(classes);
+    }
+
+    /**
+     * @param path a jar file, or a directory searched for jar and class files
+     * @return every class found
+     */
+    public static ClassCorpus of(Path path) {
+        ArrayList<byte[]> classes = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            collect(path, classes);
+        } else {
+            jar(path, classes);
+        }
+        return new ClassCorpus(classes);
+    }
+
+    private static void collect(Path root, ArrayList<byte[]> classes) {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).sorted().forEachOrdered(file -> {
+                String name = file.getFileName().toString();
+                try {
+                    if (name.endsWith(".class")) {
+                        classes.add(Files.readAllBytes(file));
+                    } else if (name.endsWith(".jar")) {
+                        jar(file, classes);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void jar(Path path, ArrayList<byte[]> classes) {
+        try (ZipFile zip = new ZipFile(path.toFile())) {
+            for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
+                    continue;
+                }
+                byte[] data = new byte[(int) entry.getSize()];
+                try (InputStream in = zip.getInputStream(entry)) {
+                    for (int off = 0, len; off < data.length; off+=len) {
+                        if ((len = in.read(data, off, data.length - off)) < 0) {
+                            throw new EOFException(entry.getName() + ": " + off + " of " + data.length + " bytes");
+                        }
+                    }
+                }
+                classes.add(data);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
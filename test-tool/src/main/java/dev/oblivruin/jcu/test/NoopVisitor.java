@@ -0,0 +1,94 @@
+// JCU: Java Classfile Util, which provides low-level primitives for
+//  interacting with class bytecodes and unsafe but fast APIs
+// Copyright (c) 2025 OblivRuinDev.
+// All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package dev.oblivruin.jcu.test;
+
+import dev.oblivruin.jcu.IRawAttributeVisitor;
+import dev.oblivruin.jcu.IRawClassVisitor;
+import dev.oblivruin.jcu.IRawCompAttributeVisitor;
+import dev.oblivruin.jcu.IRawFieldVisitor;
+import dev.oblivruin.jcu.IRawMethodVisitor;
+
+/**
+ * A visitor doing nothing, so that only the cost of walking the class file is measured.
+ * <br>
+ * Visited lengths are summed up to keep the walk observable.
+ *
+ * @author OblivRuinDev
+ */
+public final class NoopVisitor implements IRawClassVisitor, IRawFieldVisitor, IRawMethodVisitor, IRawCompAttributeVisitor {
+    public int sink;
+
+    @Override
+    public void visit(int version, int access, int thisCIndex, int superCIndex, int[] interfaceCIndexes) {
+        sink+=thisCIndex;
+    }
+
+    @Override
+    public IRawFieldVisitor visitField(int access, int nameIndex, int descIndex) {
+        sink+=nameIndex;
+        return this;
+    }
+
+    @Override
+    public IRawMethodVisitor visitMethod(int access, int nameIndex, int descIndex) {
+        sink+=nameIndex;
+        return this;
+    }
+
+    @Override
+    public void visitAttribute(int nameIndex, int off, int len, byte[] data) {
+        sink+=len;
+    }
+
+    @Override
+    public void visitAttribute(int nameIndex, int value) {
+        sink+=value;
+    }
+
+    @Override
+    public void visitEmptyAttribute(int nameIndex) {
+        ++sink;
+    }
+
+    @Override
+    public IRawAttributeVisitor visitAttribute(int nameIndex) {
+        return this;
+    }
+
+    @Override
+    public IRawCompAttributeVisitor visitCompAttribute(int nameIndex) {
+        return this;
+    }
+
+    @Override
+    public void write(byte b) {}
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {}
+
+    @Override
+    public void writeU2(int v) {}
+
+    @Override
+    public void writeU4(int v) {}
+
+    @Override
+    public void visitAttributes() {}
+
+    @Override
+    public void visitEnd() {}
+}